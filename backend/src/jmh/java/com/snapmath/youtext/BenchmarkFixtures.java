@@ -0,0 +1,130 @@
+package com.snapmath.youtext;
+
+import com.snapmath.youtext.config.StorageProperties;
+import com.snapmath.youtext.dto.CreateTranscriptionRequest;
+import com.snapmath.youtext.dto.TranscriptLineDto;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.service.TranscriptBodyTier;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic transcripts for the benchmarks: spoken-style lines of 4 to 20
+ * words drawn from a small vocabulary, one line every few seconds.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String[] FILLER = {
+            "so", "um", "you", "know", "the", "and", "like", "yeah", "it", "is", "we", "are", "that", "this", "of"
+    };
+    private static final String[] TOPIC = {
+            "neural", "network", "gradient", "descent", "training", "loss", "batch", "layer", "weights", "optimizer",
+            "learning", "rate", "dataset", "validation", "overfitting", "transformer", "attention", "embedding",
+            "tokenizer", "inference", "accuracy", "benchmark", "parameters", "regularization", "momentum"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    public static TranscriptLines lines(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        TranscriptLines.Builder lines = TranscriptLines.builder(count);
+        long seconds = 0;
+        for (int i = 0; i < count; i++) {
+            seconds += 1 + random.nextInt(6);
+            lines.add(timestamp(seconds), sentence(random), seconds * 1000);
+        }
+        return lines.build();
+    }
+
+    public static List<TranscriptLineDto> lineDtos(int count, long seed) {
+        TranscriptLines lines = lines(count, seed);
+        List<TranscriptLineDto> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dtos.add(new TranscriptLineDto(lines.timestamp(i), lines.text(i)));
+        }
+        return dtos;
+    }
+
+    public static CreateTranscriptionRequest createRequest(int lineCount, long seed) {
+        List<TranscriptLineDto> lines = lineDtos(lineCount, seed);
+        StringBuilder transcript = new StringBuilder();
+        for (TranscriptLineDto line : lines) {
+            transcript.append(transcript.length() > 0 ? "\n" : "").append(line.text());
+        }
+        return new CreateTranscriptionRequest(
+                "Video " + seed,
+                "https://www.youtube.com/watch?v=" + Long.toHexString(seed),
+                "Summary of video " + seed,
+                List.of("First highlight", "Second highlight", "Third highlight"),
+                transcript.toString(),
+                lines
+        );
+    }
+
+    public static TranscriptionRecord record(String userId, String id, int lineCount, long seed) {
+        return TranscriptionRecord.builder()
+                .id(id)
+                .userId(userId)
+                .videoTitle("Video " + seed)
+                .videoUrl("https://www.youtube.com/watch?v=" + Long.toHexString(seed))
+                .summary("Summary of video " + seed)
+                .highlights(List.of("First highlight", "Second highlight", "Third highlight"))
+                .body(TranscriptBody.joined(lines(lineCount, seed), '\n'))
+                .createdAt(Instant.ofEpochSecond(1_700_000_000L + seed))
+                .build();
+    }
+
+    public static TranscriptBodyTier heapOnlyTier() {
+        return tier(false);
+    }
+
+    /**
+     * A tier that keeps bodies deflated, with a dictionary trained on the first
+     * 256 KB of transcript text it sees.
+     */
+    public static TranscriptBodyTier compressedTier() {
+        return tier(true);
+    }
+
+    private static TranscriptBodyTier tier(boolean compressed) {
+        try {
+            return new TranscriptBodyTier(new StorageProperties(
+                    StorageProperties.Mode.MEMORY,
+                    Path.of("data"),
+                    512,
+                    Duration.ofMinutes(10),
+                    new StorageProperties.Tiering(DataSize.ofBytes(0), Path.of("data/spill"), DataSize.ofMegabytes(64)),
+                    new StorageProperties.Compression(
+                            compressed, 6, DataSize.ofKilobytes(32), DataSize.ofKilobytes(256), 64),
+                    true
+            ));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String sentence(SplittableRandom random) {
+        int words = 4 + random.nextInt(17);
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int w = 0; w < words; w++) {
+            String[] pool = random.nextInt(10) < 6 ? FILLER : TOPIC;
+            text.append(w > 0 ? " " : "").append(pool[random.nextInt(pool.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String timestamp(long seconds) {
+        return String.format("%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+}
@@ -0,0 +1,110 @@
+package com.snapmath.youtext.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapmath.youtext.BenchmarkFixtures;
+import com.snapmath.youtext.dto.CreateTranscriptionRequest;
+import com.snapmath.youtext.dto.TranscriptionRecordDto;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-to-model and model-to-response conversion for one record. The two
+ * serialization paths write the same JSON: through the DTO with Jackson
+ * databind, and straight from the model with {@link TranscriptionJsonWriter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscriptionMapperBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int linesPerRecord;
+
+    private CreateTranscriptionRequest request;
+    private TranscriptionRecord record;
+    private TranscriptionRecordDto dto;
+    private ObjectMapper objectMapper;
+    private TranscriptionJsonWriter jsonWriter;
+    private CountingOutputStream out;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkFixtures.createRequest(linesPerRecord, 42);
+        record = TranscriptionMapper.toModel(request, "user-1");
+        dto = TranscriptionMapper.toDto(record);
+        // Same defaults as the ObjectMapper Spring Boot configures.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonWriter = new TranscriptionJsonWriter(objectMapper, new SimpleMeterRegistry());
+        out = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public TranscriptionRecord toModel() {
+        return TranscriptionMapper.toModel(request, "user-1");
+    }
+
+    @Benchmark
+    public TranscriptionRecordDto toDto() {
+        return TranscriptionMapper.toDto(record);
+    }
+
+    @Benchmark
+    public long serializeDto() throws IOException {
+        objectMapper.writeValue(out, dto);
+        return out.reset();
+    }
+
+    @Benchmark
+    public long mapAndSerializeDto() throws IOException {
+        objectMapper.writeValue(out, TranscriptionMapper.toDto(record));
+        return out.reset();
+    }
+
+    @Benchmark
+    public long streamFromModel() throws IOException {
+        jsonWriter.writeJson(record, out);
+        return out.reset();
+    }
+
+    /**
+     * Discards what is written, so the benchmarks measure serialization rather than buffer growth.
+     */
+    static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        long reset() {
+            long written = count;
+            count = 0;
+            return written;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.snapmath.youtext.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapmath.youtext.BenchmarkFixtures;
+import com.snapmath.youtext.dto.CreateTranscriptionRequest;
+import com.snapmath.youtext.dto.TranscriptionRecordDto;
+import com.snapmath.youtext.mapper.TranscriptionMapperBenchmark.CountingOutputStream;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against CBOR and Smile for one record: writing it the way the API does,
+ * through the DTO and straight from the model, and reading it back the way a
+ * client or the create endpoint does. {@code payloadSize} reports the encoded
+ * sizes as its {@code recordBytes} and {@code requestBytes} secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"10", "1000", "10000"})
+    int linesPerRecord;
+
+    private TranscriptionRecord record;
+    private TranscriptionRecordDto dto;
+    private ObjectMapper mapper;
+    private TranscriptionJsonWriter jsonWriter;
+    private byte[] encodedRecord;
+    private byte[] encodedRequest;
+    private CountingOutputStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        CreateTranscriptionRequest request = BenchmarkFixtures.createRequest(linesPerRecord, 42);
+        record = TranscriptionMapper.toModel(request, "user-1");
+        dto = TranscriptionMapper.toDto(record);
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        mapper = switch (format) {
+            case "json" -> json;
+            case "cbor" -> TranscriptionJsonWriter.cborMapper(json);
+            case "smile" -> TranscriptionJsonWriter.smileMapper(json);
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        jsonWriter = new TranscriptionJsonWriter(json, new SimpleMeterRegistry());
+        encodedRecord = mapper.writeValueAsBytes(dto);
+        encodedRequest = mapper.writeValueAsBytes(request);
+        out = new CountingOutputStream();
+    }
+
+    @Benchmark
+    public long serializeDto() throws IOException {
+        mapper.writeValue(out, dto);
+        return out.reset();
+    }
+
+    @Benchmark
+    public long streamFromModel() throws IOException {
+        switch (format) {
+            case "cbor" -> jsonWriter.writeCbor(record, out);
+            case "smile" -> jsonWriter.writeSmile(record, out);
+            default -> jsonWriter.writeJson(record, out);
+        }
+        return out.reset();
+    }
+
+    @Benchmark
+    public TranscriptionRecordDto readRecord() throws IOException {
+        return mapper.readValue(encodedRecord, TranscriptionRecordDto.class);
+    }
+
+    @Benchmark
+    public CreateTranscriptionRequest readCreateRequest() throws IOException {
+        return mapper.readValue(encodedRequest, CreateTranscriptionRequest.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public void payloadSize(PayloadSize size) {
+        size.recordBytes = encodedRecord.length;
+        size.requestBytes = encodedRequest.length;
+    }
+
+    /**
+     * Event counters are summed over iterations, so {@code payloadSize} runs
+     * a single one.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long recordBytes;
+        public long requestBytes;
+    }
+}
@@ -0,0 +1,66 @@
+package com.snapmath.youtext.persistence;
+
+import com.snapmath.youtext.BenchmarkFixtures;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary encoding used by the write-ahead log, snapshots and spilled bodies.
+ * {@code decodeBody} is the cost of reading a spilled transcript back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordCodecBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int linesPerRecord;
+
+    private TranscriptionRecord record;
+    private byte[] encodedRecord;
+    private byte[] encodedBody;
+
+    @Setup
+    public void setUp() {
+        record = BenchmarkFixtures.record("user-1", "record-1", linesPerRecord, 42);
+        encodedRecord = RecordCodec.encode(record);
+        encodedBody = RecordCodec.encodeBody(record.getBody());
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return RecordCodec.encode(record);
+    }
+
+    @Benchmark
+    public TranscriptionRecord decode() {
+        return RecordCodec.decode(ByteBuffer.wrap(encodedRecord));
+    }
+
+    @Benchmark
+    public byte[] encodeBody() {
+        return RecordCodec.encodeBody(record.getBody());
+    }
+
+    @Benchmark
+    public TranscriptBody decodeBody() {
+        return RecordCodec.decodeBody(ByteBuffer.wrap(encodedBody));
+    }
+}
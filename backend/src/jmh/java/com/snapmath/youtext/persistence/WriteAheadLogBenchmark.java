@@ -0,0 +1,76 @@
+package com.snapmath.youtext.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable appends, each waiting for its fsync. With several writers the
+ * flusher batches their entries into one sync, so throughput should grow with
+ * the thread count while a single writer is bounded by the disk's sync latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+
+    private static final byte ENTRY_TYPE = 1;
+
+    @Param({"256", "16384"})
+    int payloadBytes;
+
+    private Path directory;
+    private WriteAheadLog wal;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-bench");
+        wal = new WriteAheadLog(directory, 1, 0, 512);
+        payload = new byte[payloadBytes];
+        new SplittableRandom(7).nextBytes(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        wal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void appendOneWriter() {
+        wal.append(ENTRY_TYPE, payload).join();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void appendSixteenWriters() {
+        wal.append(ENTRY_TYPE, payload).join();
+    }
+}
@@ -0,0 +1,86 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.SessionProperties;
+import com.snapmath.youtext.model.Session;
+import com.snapmath.youtext.model.UserProfile;
+import com.snapmath.youtext.web.PrincipalCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign-in and lookups, plus the two ways a request can be tied to its user:
+ * the session lookups every handler used to repeat, and the interceptor's
+ * {@link PrincipalCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    int users;
+
+    private InMemoryAuthService authService;
+    private PrincipalCache principals;
+    private String[] emails;
+    private String[] userIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SessionProperties properties = new SessionProperties(Duration.ofHours(12), users * 2, Duration.ofSeconds(30), users);
+        authService = new InMemoryAuthService(properties, event -> { });
+        principals = new PrincipalCache(authService, properties);
+        emails = new String[users];
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            emails[i] = "user" + i + "@example.com";
+            userIds[i] = authService.signInWithGoogle("credential-" + i, emails[i], "User " + i).getId();
+            principals.resolve(userIds[i]);
+        }
+    }
+
+    @Benchmark
+    public UserProfile signInWithGoogle() {
+        int index = nextIndex();
+        return authService.signInWithGoogle("credential-" + index, emails[index], "User " + index);
+    }
+
+    @Benchmark
+    public Optional<UserProfile> findById() {
+        return authService.findById(userIds[nextIndex()]);
+    }
+
+    @Benchmark
+    public Optional<Session> resolveThroughSession() {
+        String userId = userIds[nextIndex()];
+        return authService.findById(userId).flatMap(profile -> authService.getActiveSession(userId));
+    }
+
+    @Benchmark
+    public String resolveThroughPrincipalCache() {
+        return principals.resolve(userIds[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == users ? 0 : index + 1;
+        return index;
+    }
+}
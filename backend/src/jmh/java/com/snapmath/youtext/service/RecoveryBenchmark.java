@@ -0,0 +1,108 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.BenchmarkFixtures;
+import com.snapmath.youtext.config.StorageProperties;
+import com.snapmath.youtext.config.SyncProperties;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.persistence.RecordCodec;
+import com.snapmath.youtext.persistence.SnapshotFile;
+import com.snapmath.youtext.persistence.WriteAheadLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup recovery of the durable store: loading a snapshot of
+ * {@code snapshotRecords} and replaying {@code logEntries} saves logged after
+ * it. Recovery time should grow linearly with both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RecoveryBenchmark {
+
+    private static final byte SAVE = 1;
+    private static final int LINES_PER_RECORD = 100;
+
+    @Param({"0", "1000", "10000"})
+    int snapshotRecords;
+
+    @Param({"0", "1000", "10000"})
+    int logEntries;
+
+    private Path directory;
+    private StorageProperties properties;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("recovery-bench");
+        properties = new StorageProperties(
+                StorageProperties.Mode.DURABLE,
+                directory,
+                512,
+                Duration.ofMinutes(10),
+                new StorageProperties.Tiering(DataSize.ofBytes(0), directory.resolve("spill"), DataSize.ofMegabytes(64)),
+                new StorageProperties.Compression(false, 6, DataSize.ofKilobytes(32), DataSize.ofMegabytes(1), 64),
+                true
+        );
+        SnapshotFile.write(directory, 1, action -> {
+            for (int i = 0; i < snapshotRecords; i++) {
+                action.accept(record(i));
+            }
+        });
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 1, 0, 512)) {
+            List<CompletableFuture<Void>> appends = new ArrayList<>(logEntries);
+            for (int i = 0; i < logEntries; i++) {
+                appends.add(wal.append(SAVE, RecordCodec.encode(record(snapshotRecords + i))));
+            }
+            appends.forEach(CompletableFuture::join);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public TranscriptionStoreStats recover() throws IOException {
+        try (DurableTranscriptionService service = new DurableTranscriptionService(
+                properties, event -> { }, BenchmarkFixtures.heapOnlyTier(), new SyncProperties(1000))) {
+            service.recover();
+            return service.stats();
+        }
+    }
+
+    private static TranscriptionRecord record(int index) {
+        return BenchmarkFixtures.record("user-" + index % 100, "record-" + index, LINES_PER_RECORD, index);
+    }
+}
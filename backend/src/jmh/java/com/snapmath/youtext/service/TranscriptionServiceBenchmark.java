@@ -0,0 +1,108 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.BenchmarkFixtures;
+import com.snapmath.youtext.config.SyncProperties;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscriptionServiceBenchmark {
+
+    private static final String USER = "user-1";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10", "1000"})
+    int recordsPerUser;
+
+    @Param({"10", "1000"})
+    int linesPerRecord;
+
+    @Param({"false", "true"})
+    boolean compressed;
+
+    private InMemoryTranscriptionService service;
+    private String[] ids;
+    private TranscriptionRecord[] replacements;
+    private TranscriptionRecord extra;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = new InMemoryTranscriptionService(event -> { },
+                compressed ? BenchmarkFixtures.compressedTier() : BenchmarkFixtures.heapOnlyTier(),
+                new SyncProperties(1000));
+        ids = new String[recordsPerUser];
+        replacements = new TranscriptionRecord[recordsPerUser];
+        for (int i = 0; i < recordsPerUser; i++) {
+            ids[i] = "record-" + i;
+            TranscriptionRecord record = BenchmarkFixtures.record(USER, ids[i], linesPerRecord, i);
+            service.save(USER, record);
+            replacements[i] = record.toBuilder().summary("Updated summary " + i).build();
+        }
+        extra = BenchmarkFixtures.record(USER, "record-extra", linesPerRecord, recordsPerUser);
+    }
+
+    @Benchmark
+    public TranscriptionRecord save() {
+        return service.save(USER, replacements[nextIndex()]);
+    }
+
+    @Benchmark
+    public void findAll(Blackhole blackhole) {
+        for (TranscriptionRecord record : service.findAll(USER)) {
+            blackhole.consume(record);
+        }
+    }
+
+    @Benchmark
+    public List<TranscriptionRecord> findPage() {
+        return service.findPage(USER, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Optional<TranscriptionRecord> findOne() {
+        return service.findOne(USER, ids[nextIndex()]);
+    }
+
+    /**
+     * Opens the body as a reader of the record would; with compression this
+     * inflates it unless it is among the recently decompressed.
+     */
+    @Benchmark
+    public TranscriptBody findOneBody() {
+        return service.findOne(USER, ids[nextIndex()]).map(TranscriptionRecord::getBody).orElseThrow();
+    }
+
+    @Benchmark
+    public void saveThenDelete() {
+        service.save(USER, extra);
+        service.delete(USER, extra.getId());
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == ids.length ? 0 : index + 1;
+        return index;
+    }
+}
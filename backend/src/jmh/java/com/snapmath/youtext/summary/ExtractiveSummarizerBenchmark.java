@@ -0,0 +1,63 @@
+package com.snapmath.youtext.summary;
+
+import com.snapmath.youtext.BenchmarkFixtures;
+import com.snapmath.youtext.config.SummaryProperties;
+import com.snapmath.youtext.job.TranscriptSummary;
+import com.snapmath.youtext.model.TranscriptLines;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarizer throughput; the {@code lines} secondary result is in transcript
+ * lines per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractiveSummarizerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int lineCount;
+
+    private ExtractiveSummarizer summarizer;
+    private TranscriptLines lines;
+
+    @Setup
+    public void setUp() {
+        summarizer = new ExtractiveSummarizer(new SummaryProperties(3, 600, 5));
+        lines = BenchmarkFixtures.lines(lineCount, 42);
+    }
+
+    @Benchmark
+    public TranscriptSummary summarize(LineCounter counter) {
+        counter.lines += lineCount;
+        return summarizer.summarize("Video", lines);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class LineCounter {
+        public long lines;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lines = 0;
+        }
+    }
+}
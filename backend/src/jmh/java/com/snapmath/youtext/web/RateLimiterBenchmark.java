@@ -0,0 +1,79 @@
+package com.snapmath.youtext.web;
+
+import com.snapmath.youtext.config.RateLimitProperties;
+import com.snapmath.youtext.config.RateLimitProperties.Limit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one limiter decision: admitted and rejected requests spread over
+ * many users, and four threads taking from a single user's bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    int users;
+
+    private RateLimiter limiter;
+    private RateLimiter.Endpoint unlimited;
+    private RateLimiter.Endpoint exhausted;
+    private String[] userIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(true, DataSize.ofKilobytes(64),
+                200, 50, 60, 10, 20, 1, Duration.ofMinutes(10), Duration.ofMinutes(1));
+        limiter = new RateLimiter(properties);
+        unlimited = new RateLimiter.Endpoint(new Limit(Integer.MAX_VALUE, 1e9));
+        exhausted = new RateLimiter.Endpoint(new Limit(1, 1e-3));
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user-" + i;
+            limiter.acquire(userIds[i], unlimited, 1);
+            limiter.acquire(userIds[i], exhausted, 1);
+        }
+    }
+
+    @Benchmark
+    public long admitted() {
+        return limiter.acquire(userIds[nextIndex()], unlimited, 1);
+    }
+
+    @Benchmark
+    public long rejected() {
+        return limiter.acquire(userIds[nextIndex()], exhausted, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long contended() {
+        return limiter.acquire(userIds[0], unlimited, 1);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == users ? 0 : index + 1;
+        return index;
+    }
+}
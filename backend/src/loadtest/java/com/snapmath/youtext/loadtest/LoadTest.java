@@ -0,0 +1,334 @@
+package com.snapmath.youtext.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapmath.youtext.YouTextBackendApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the backend on a random port and drives it with an open-loop request
+ * mix: requests are issued on a fixed schedule whether or not earlier ones have
+ * returned, and each latency is measured from the moment its request was due,
+ * so a stalled server shows up in the tail instead of slowing the generator
+ * down (no coordinated omission). Requests that come due while
+ * {@code --max-in-flight} are outstanding are not sent; they count as errors
+ * with the request timeout as their latency.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="--rate=500 --duration=PT60S --lines=1000"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final String USER_HEADER = "X-User-Id";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http;
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final TranscriptPayloads payloads;
+    private final List<User> users = new ArrayList<>();
+    private final Operation[] schedule;
+    private final Semaphore inFlight;
+    private final Map<Operation, Recorder> latency = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+
+    private LoadTest(LoadTestOptions options, URI baseUri) throws IOException {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.http = HttpClient.newBuilder().executor(requests).build();
+        this.payloads = new TranscriptPayloads(objectMapper, options.lines(), 42);
+        this.schedule = expand(options.mix());
+        this.inFlight = new Semaphore(options.maxInFlight());
+        for (Operation operation : Operation.values()) {
+            latency.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (ConfigurableApplicationContext application = boot(options)) {
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            new LoadTest(options, URI.create("http://localhost:" + port)).run();
+        }
+    }
+
+    private static ConfigurableApplicationContext boot(LoadTestOptions options) {
+        List<String> args = new ArrayList<>(options.applicationArgs());
+        args.add("--server.port=0");
+        addDefault(args, "--spring.main.banner-mode", "off");
+        addDefault(args, "--logging.level.root", "WARN");
+        // Every simulated user comes from one address and sends as fast as the rate asks.
+        addDefault(args, "--youtext.rate-limit.enabled", "false");
+        return new SpringApplication(YouTextBackendApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static void addDefault(List<String> args, String name, String value) {
+        if (args.stream().noneMatch(arg -> arg.startsWith(name + "="))) {
+            args.add(name + "=" + value);
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Signing in %d users and seeding %d records each (%d lines, %d bytes per create on average)%n",
+                options.users(), options.seedRecords(), payloads.averageLines(), payloads.averageBytes());
+        seed();
+
+        System.out.printf("Warming up for %s at %.0f req/s%n", options.warmup(), options.rate());
+        drive(options.warmup());
+        resetStats();
+
+        System.out.printf("Measuring for %s at %.0f req/s%n", options.duration(), options.rate());
+        long started = System.nanoTime();
+        drive(options.duration());
+        report((System.nanoTime() - started) / 1e9);
+        requests.shutdownNow();
+    }
+
+    private void seed() throws Exception {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < options.users(); i++) {
+            User user = new User("loadtest-" + i + "@example.com");
+            user.id = signIn(user);
+            if (user.id == null) {
+                throw new IllegalStateException("Sign-in failed for " + user.email);
+            }
+            users.add(user);
+        }
+        List<Runnable> seeds = new ArrayList<>();
+        for (User user : users) {
+            for (int i = 0; i < options.seedRecords(); i++) {
+                byte[] body = payloads.pick(random);
+                seeds.add(() -> create(user, body));
+            }
+        }
+        try (ExecutorService seeding = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            seeds.forEach(seeding::execute);
+        }
+    }
+
+    /**
+     * Issues requests at the configured rate for {@code length}, then waits for
+     * the stragglers.
+     */
+    private void drive(Duration length) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(11);
+        long interval = Math.max(1, (long) (1_000_000_000L / options.rate()));
+        long end = System.nanoTime() + length.toNanos();
+        for (long due = System.nanoTime(); due < end; due += interval) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            User user = users.get(random.nextInt(users.size()));
+            byte[] body = payloads.pick(random);
+            if (!inFlight.tryAcquire()) {
+                drop(operation);
+                continue;
+            }
+            long scheduledAt = due;
+            requests.execute(() -> {
+                try {
+                    execute(operation, user, body, scheduledAt);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(options.maxInFlight());
+        inFlight.release(options.maxInFlight());
+    }
+
+    /**
+     * A request the generator could not send is recorded as having timed out
+     * rather than left out of the tail.
+     */
+    private void drop(Operation operation) {
+        dropped.increment();
+        latency.get(operation).recordValue(REQUEST_TIMEOUT.toNanos() / 1_000);
+        errors.get(operation).increment();
+    }
+
+    private void execute(Operation operation, User user, byte[] body, long scheduledAt) {
+        Operation performed = operation;
+        boolean ok;
+        try {
+            switch (operation) {
+                case SIGN_IN -> ok = signIn(user) != null;
+                case LIST -> ok = send(get("/api/transcriptions?limit=20", user)) == 200;
+                case GET, DELETE -> {
+                    String recordId = user.recordIds.pollFirst();
+                    if (recordId == null) {
+                        performed = Operation.CREATE;
+                        ok = create(user, body);
+                    } else if (operation == Operation.GET) {
+                        ok = send(get("/api/transcriptions/" + recordId, user)) == 200;
+                        user.recordIds.addLast(recordId);
+                    } else {
+                        ok = send(authorized("/api/transcriptions/" + recordId, user).DELETE().build()) == 204;
+                    }
+                }
+                case CREATE -> ok = create(user, body);
+                default -> throw new IllegalStateException("Unknown operation " + operation);
+            }
+        } catch (IOException | RuntimeException ex) {
+            ok = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        latency.get(performed).recordValue(Math.max(1, (System.nanoTime() - scheduledAt) / 1_000));
+        if (!ok) {
+            errors.get(performed).increment();
+        }
+    }
+
+    private String signIn(User user) throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+                "credential", "load-test",
+                "email", user.email,
+                "displayName", "Load Test"
+        ));
+        HttpResponse<byte[]> response = http.send(
+                json(request("/api/auth/google"), body),
+                HttpResponse.BodyHandlers.ofByteArray()
+        );
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        return objectMapper.readTree(response.body()).path("userId").asText(null);
+    }
+
+    private boolean create(User user, byte[] body) {
+        try {
+            HttpResponse<byte[]> response = http.send(
+                    json(authorized("/api/transcriptions", user), body),
+                    HttpResponse.BodyHandlers.ofByteArray()
+            );
+            if (response.statusCode() != 201) {
+                return false;
+            }
+            JsonNode id = objectMapper.readTree(response.body()).path("id");
+            user.recordIds.addLast(id.asText());
+            return true;
+        } catch (IOException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(String path, User user) {
+        return authorized(path, user).GET().build();
+    }
+
+    private HttpRequest.Builder authorized(String path, User user) {
+        return request(path).header(USER_HEADER, user.id);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, byte[] body) {
+        return builder
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private void resetStats() {
+        latency.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+        dropped.reset();
+    }
+
+    private void report(double seconds) {
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        System.out.printf("%n%-8s %9s %9s %7s %9s %9s %9s %9s%n",
+                "op", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latency.get(operation).getIntervalHistogram();
+            long failed = errors.get(operation).sum();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += failed;
+            printRow(operation.name().toLowerCase(), histogram, failed, seconds);
+        }
+        printRow("total", total, totalErrors, seconds);
+        long notSent = dropped.sum();
+        System.out.printf("%nTarget %.0f req/s, completed %.0f req/s, dropped %d (over %d in flight)%n",
+                options.rate(), (total.getTotalCount() - notSent) / seconds, notSent, options.maxInFlight());
+        if (notSent > 0) {
+            System.out.printf("Dropped requests are counted as errors at the %d s timeout; "
+                    + "raise --max-in-flight or lower --rate for a clean run%n", REQUEST_TIMEOUT.toSeconds());
+        }
+    }
+
+    private static void printRow(String name, Histogram histogram, long failed, double seconds) {
+        System.out.printf("%-8s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                failed,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static Operation[] expand(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        return slots.toArray(Operation[]::new);
+    }
+
+    private static final class User {
+        private final String email;
+        private final ConcurrentLinkedDeque<String> recordIds = new ConcurrentLinkedDeque<>();
+        private volatile String id;
+
+        private User(String email) {
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.snapmath.youtext.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}. Anything not recognised
+ * is passed on to the application, so {@code --youtext.storage.mode=durable}
+ * and similar work as usual.
+ */
+public record LoadTestOptions(
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int users,
+        int seedRecords,
+        int lines,
+        int maxInFlight,
+        Map<Operation, Integer> mix,
+        List<String> applicationArgs
+) {
+    private static final String DEFAULT_MIX = "sign_in:1,create:2,list:4,get:4,delete:1";
+
+    public static LoadTestOptions parse(String[] args) {
+        double rate = 200;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        int users = 50;
+        int seedRecords = 20;
+        int lines = 300;
+        int maxInFlight = 10_000;
+        String mix = DEFAULT_MIX;
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator > 0 ? arg.substring(0, separator) : arg;
+            String value = separator > 0 ? arg.substring(separator + 1) : "";
+            switch (name) {
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--warmup" -> warmup = Duration.parse(value);
+                case "--duration" -> duration = Duration.parse(value);
+                case "--users" -> users = Integer.parseInt(value);
+                case "--seed-records" -> seedRecords = Integer.parseInt(value);
+                case "--lines" -> lines = Integer.parseInt(value);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "--mix" -> mix = value;
+                default -> applicationArgs.add(arg);
+            }
+        }
+        if (rate <= 0 || users <= 0 || lines <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("rate, users, lines and max-in-flight must be positive");
+        }
+        return new LoadTestOptions(rate, warmup, duration, users, seedRecords, lines, maxInFlight,
+                parseMix(mix), List.copyOf(applicationArgs));
+    }
+
+    /**
+     * Parses {@code operation:weight} pairs, e.g. {@code list:4,get:4,create:1}.
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like operation:weight, got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return mix;
+    }
+}
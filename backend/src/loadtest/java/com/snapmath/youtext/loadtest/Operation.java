@@ -0,0 +1,9 @@
+package com.snapmath.youtext.loadtest;
+
+public enum Operation {
+    SIGN_IN,
+    CREATE,
+    LIST,
+    GET,
+    DELETE
+}
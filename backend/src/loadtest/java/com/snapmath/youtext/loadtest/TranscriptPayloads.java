@@ -0,0 +1,95 @@
+package com.snapmath.youtext.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapmath.youtext.dto.CreateTranscriptionRequest;
+import com.snapmath.youtext.dto.TranscriptLineDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Pre-serialized create requests, so building bodies costs the generator
+ * nothing during a run. Line counts are spread log-normally around the
+ * requested mean, as real transcripts mix short clips with long talks.
+ */
+final class TranscriptPayloads {
+
+    private static final int VARIANTS = 64;
+    private static final int MAX_LINES = 20_000;
+    private static final String[] WORDS = {
+            "so", "today", "we", "are", "going", "to", "look", "at", "how", "the", "model", "learns", "from", "data",
+            "and", "why", "training", "takes", "time", "you", "can", "see", "loss", "curve", "here", "drops", "fast",
+            "then", "flattens", "out", "because", "gradient", "gets", "smaller", "which", "means", "learning", "rate"
+    };
+
+    private final byte[][] bodies;
+    private final int totalLines;
+
+    TranscriptPayloads(ObjectMapper objectMapper, int meanLines, long seed) throws JsonProcessingException {
+        SplittableRandom random = new SplittableRandom(seed);
+        bodies = new byte[VARIANTS][];
+        int lines = 0;
+        for (int i = 0; i < VARIANTS; i++) {
+            // Log-normal with sigma 0.6, scaled so the mean is meanLines.
+            double factor = Math.exp(0.6 * gaussian(random) - 0.18);
+            int lineCount = (int) Math.max(1, Math.min(MAX_LINES, Math.round(meanLines * factor)));
+            bodies[i] = objectMapper.writeValueAsBytes(request(random, i, lineCount));
+            lines += lineCount;
+        }
+        totalLines = lines;
+    }
+
+    byte[] pick(SplittableRandom random) {
+        return bodies[random.nextInt(bodies.length)];
+    }
+
+    int averageLines() {
+        return totalLines / bodies.length;
+    }
+
+    long averageBytes() {
+        long bytes = 0;
+        for (byte[] body : bodies) {
+            bytes += body.length;
+        }
+        return bytes / bodies.length;
+    }
+
+    private static CreateTranscriptionRequest request(SplittableRandom random, int variant, int lineCount) {
+        List<TranscriptLineDto> lines = new ArrayList<>(lineCount);
+        StringBuilder transcript = new StringBuilder();
+        long seconds = 0;
+        for (int i = 0; i < lineCount; i++) {
+            seconds += 1 + random.nextInt(5);
+            String text = sentence(random);
+            lines.add(new TranscriptLineDto(
+                    String.format("%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60), text));
+            transcript.append(i > 0 ? "\n" : "").append(text);
+        }
+        return new CreateTranscriptionRequest(
+                "Load test video " + variant,
+                "https://www.youtube.com/watch?v=load" + variant,
+                "A talk about training models, variant " + variant,
+                List.of("Loss drops fast at first", "Learning rate matters", "Training takes time"),
+                transcript.toString(),
+                lines
+        );
+    }
+
+    private static String sentence(SplittableRandom random) {
+        int words = 5 + random.nextInt(12);
+        StringBuilder text = new StringBuilder(words * 7);
+        for (int w = 0; w < words; w++) {
+            text.append(w > 0 ? " " : "").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+}
@@ -0,0 +1,15 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "youtext.drafts")
+public record DraftProperties(
+        @DefaultValue("PT1H") Duration idleTtl,
+        @DefaultValue("5") int maxPerUser,
+        @DefaultValue("500000") int maxLines,
+        @DefaultValue("PT1M") Duration evictionInterval
+) {
+}
@@ -0,0 +1,15 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "youtext.jobs")
+public record JobProperties(
+        @DefaultValue("2") int workers,
+        @DefaultValue("100") int queueCapacity,
+        @DefaultValue("PT1H") Duration retention,
+        @DefaultValue("PT1M") Duration evictionInterval
+) {
+}
@@ -0,0 +1,42 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Token buckets per client and endpoint, sized separately for reads, writes
+ * and sign-in. Every request takes one token, plus one per
+ * {@code bytesPerToken} of request body. Buckets that have been full for
+ * {@code idleTimeout} are dropped every {@code evictionInterval}.
+ */
+@ConfigurationProperties(prefix = "youtext.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("64KB") DataSize bytesPerToken,
+        @DefaultValue("200") int readCapacity,
+        @DefaultValue("50") double readPerSecond,
+        @DefaultValue("60") int writeCapacity,
+        @DefaultValue("10") double writePerSecond,
+        @DefaultValue("20") int authCapacity,
+        @DefaultValue("1") double authPerSecond,
+        @DefaultValue("PT10M") Duration idleTimeout,
+        @DefaultValue("PT1M") Duration evictionInterval
+) {
+    public Limit read() {
+        return new Limit(readCapacity, readPerSecond);
+    }
+
+    public Limit write() {
+        return new Limit(writeCapacity, writePerSecond);
+    }
+
+    public Limit auth() {
+        return new Limit(authCapacity, authPerSecond);
+    }
+
+    public record Limit(int capacity, double perSecond) {
+    }
+}
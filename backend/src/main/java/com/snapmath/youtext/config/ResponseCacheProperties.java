@@ -0,0 +1,19 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Serialized responses are kept up to {@code maxSize} in total; records whose
+ * body is estimated above {@code maxEntrySize} are always streamed. Bodies of at
+ * least {@code gzipMinSize} are also kept gzip-encoded when {@code gzip} is on.
+ */
+@ConfigurationProperties(prefix = "youtext.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("4MB") DataSize maxEntrySize,
+        @DefaultValue("true") boolean gzip,
+        @DefaultValue("1KB") DataSize gzipMinSize
+) {
+}
@@ -0,0 +1,15 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "youtext.sessions")
+public record SessionProperties(
+        @DefaultValue("12h") Duration ttl,
+        @DefaultValue("100000") int maxSessions,
+        @DefaultValue("PT30S") Duration evictionInterval,
+        @DefaultValue("10000") int principalCacheSize
+) {
+}
@@ -0,0 +1,53 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "youtext.storage")
+public record StorageProperties(
+        @DefaultValue("memory") Mode mode,
+        @DefaultValue("data") Path directory,
+        @DefaultValue("512") int maxCommitBatch,
+        @DefaultValue("PT10M") Duration snapshotInterval,
+        @DefaultValue Tiering tiering,
+        @DefaultValue Compression compression,
+        @DefaultValue("true") boolean deduplicate
+) {
+    public enum Mode {
+        MEMORY,
+        DURABLE
+    }
+
+    /**
+     * Transcript bodies beyond {@code heapBudget} are spilled to memory-mapped
+     * files under {@code directory}; a zero budget keeps everything on the heap.
+     */
+    public record Tiering(
+            @DefaultValue("0B") DataSize heapBudget,
+            @DefaultValue("data/spill") Path directory,
+            @DefaultValue("64MB") DataSize segmentSize
+    ) {
+        public boolean enabled() {
+            return heapBudget.toBytes() > 0;
+        }
+    }
+
+    /**
+     * Keeps transcript bodies deflated on the heap. The first {@code trainingSize}
+     * of transcript text trains a preset dictionary of up to
+     * {@code dictionarySize} shared by every body compressed afterwards. Up to
+     * {@code cacheSize} recently read or saved bodies stay decompressed.
+     */
+    public record Compression(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("6") int level,
+            @DefaultValue("32KB") DataSize dictionarySize,
+            @DefaultValue("1MB") DataSize trainingSize,
+            @DefaultValue("64") int cacheSize
+    ) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "youtext.summary")
+public record SummaryProperties(
+        @DefaultValue("3") int sentences,
+        @DefaultValue("600") int maxLength,
+        @DefaultValue("5") int highlights
+) {
+}
@@ -0,0 +1,14 @@
+package com.snapmath.youtext.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Each user's last {@code changeLogSize} saves and deletes are kept for delta
+ * sync; a client further behind than that has to fetch the full list again.
+ */
+@ConfigurationProperties(prefix = "youtext.sync")
+public record SyncProperties(
+        @DefaultValue("1000") int changeLogSize
+) {
+}
@@ -2,6 +2,7 @@ package com.snapmath.youtext.controller;
 
 import com.snapmath.youtext.dto.AuthResponse;
 import com.snapmath.youtext.dto.GoogleAuthRequest;
+import com.snapmath.youtext.model.Session;
 import com.snapmath.youtext.model.UserProfile;
 import com.snapmath.youtext.service.AuthService;
 import jakarta.validation.Valid;
@@ -13,15 +14,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private static final Duration TOKEN_TTL = Duration.ofHours(12);
-
     private final AuthService authService;
 
     public AuthController(AuthService authService) {
@@ -38,18 +37,10 @@ public class AuthController {
                 request.displayName()
         );
 
-        String token = authService.getActiveToken(profile.getId())
+        Session session = authService.getActiveSession(profile.getId())
                 .orElseThrow(() -> new IllegalStateException("Token creation failed"));
 
-        return ResponseEntity.ok(
-                new AuthResponse(
-                        profile.getId(),
-                        profile.getDisplayName(),
-                        profile.getEmail(),
-                        token,
-                        TOKEN_TTL.toSeconds()
-                )
-        );
+        return ResponseEntity.ok(toResponse(profile, session));
     }
 
     @PostMapping("/sign-out")
@@ -62,14 +53,19 @@ public class AuthController {
     public ResponseEntity<AuthResponse> currentUser(@RequestParam("userId") String userId) {
         Optional<UserProfile> profileOpt = authService.findById(userId);
         return profileOpt
-                .flatMap(profile -> authService.getActiveToken(userId)
-                        .map(token -> new AuthResponse(
-                                profile.getId(),
-                                profile.getDisplayName(),
-                                profile.getEmail(),
-                                token,
-                                TOKEN_TTL.toSeconds())))
+                .flatMap(profile -> authService.getActiveSession(userId)
+                        .map(session -> toResponse(profile, session)))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    private AuthResponse toResponse(UserProfile profile, Session session) {
+        return new AuthResponse(
+                profile.getId(),
+                profile.getDisplayName(),
+                profile.getEmail(),
+                session.token(),
+                session.remaining(Instant.now()).toSeconds()
+        );
+    }
 }
@@ -1,25 +1,43 @@
 package com.snapmath.youtext.controller;
 
 import com.snapmath.youtext.dto.CreateTranscriptionRequest;
+import com.snapmath.youtext.dto.TranscriptLineDto;
+import com.snapmath.youtext.dto.TranscriptSearchHitDto;
+import com.snapmath.youtext.dto.TranscriptionChangesDto;
+import com.snapmath.youtext.dto.TranscriptionPageDto;
 import com.snapmath.youtext.dto.TranscriptionRecordDto;
+import com.snapmath.youtext.mapper.TranscriptionJsonWriter;
 import com.snapmath.youtext.mapper.TranscriptionMapper;
+import com.snapmath.youtext.model.Timestamps;
+import com.snapmath.youtext.model.TranscriptionCursor;
 import com.snapmath.youtext.model.TranscriptionRecord;
-import com.snapmath.youtext.service.AuthService;
+import com.snapmath.youtext.search.TranscriptSearchService;
 import com.snapmath.youtext.service.TranscriptionService;
+import com.snapmath.youtext.summary.ExtractiveSummarizer;
+import com.snapmath.youtext.web.AuthenticatedUserInterceptor;
+import com.snapmath.youtext.web.TranscriptionResponseCache;
+import com.snapmath.youtext.web.TranscriptionResponseCache.Representation;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,83 +46,303 @@ import java.util.Optional;
 public class TranscriptionController {
 
     public static final String USER_HEADER = "X-User-Id";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Records are private to their user; clients may keep them but must revalidate.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     private final TranscriptionService transcriptionService;
-    private final AuthService authService;
+    private final TranscriptSearchService searchService;
+    private final TranscriptionJsonWriter jsonWriter;
+    private final ExtractiveSummarizer summarizer;
+    private final TranscriptionResponseCache responseCache;
 
-    public TranscriptionController(TranscriptionService transcriptionService, AuthService authService) {
+    public TranscriptionController(
+            TranscriptionService transcriptionService,
+            TranscriptSearchService searchService,
+            TranscriptionJsonWriter jsonWriter,
+            ExtractiveSummarizer summarizer,
+            TranscriptionResponseCache responseCache
+    ) {
         this.transcriptionService = transcriptionService;
-        this.authService = authService;
+        this.searchService = searchService;
+        this.jsonWriter = jsonWriter;
+        this.summarizer = summarizer;
+        this.responseCache = responseCache;
     }
 
-    @GetMapping
-    public ResponseEntity<List<TranscriptionRecordDto>> findAll(
-            @RequestHeader(USER_HEADER) String userId
+    /**
+     * A page in the shape of {@link TranscriptionPageDto}. JSON is assembled
+     * from cached item JSON; CBOR and Smile are written by the message
+     * converters. A request whose If-None-Match still matches the page gets a 304.
+     */
+    @GetMapping(produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            TranscriptionJsonWriter.APPLICATION_SMILE_VALUE
+    })
+    public ResponseEntity<?> findAll(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        Optional<String> resolved = resolveUser(userId);
-        if (resolved.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        TranscriptionCursor after = null;
+        if (StringUtils.hasText(cursor)) {
+            Optional<TranscriptionCursor> parsed = TranscriptionMapper.parseCursor(cursor);
+            if (parsed.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            after = parsed.get();
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<TranscriptionRecord> records = transcriptionService.findPage(userId, after, pageSize + 1);
+        boolean hasMore = records.size() > pageSize;
+        List<TranscriptionRecord> page = hasMore ? records.subList(0, pageSize) : records;
+
+        Format format = negotiate(accept, Format.JSON, Format.CBOR, Format.SMILE);
+        String nextCursor = hasMore ? TranscriptionMapper.toCursor(page.get(pageSize - 1)) : null;
+        String etag = TranscriptionResponseCache.pageEtag(page, nextCursor, format.representation);
+        if (TranscriptionResponseCache.matches(ifNoneMatch, etag)) {
+            return notModified(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT);
+        if (format == Format.JSON) {
+            return response.body(responseCache.page(page, nextCursor));
         }
-        List<TranscriptionRecordDto> records = transcriptionService.findAll(resolved.get()).stream()
-                .map(TranscriptionMapper::toDto)
+        return response.body(new TranscriptionPageDto(
+                page.stream().map(TranscriptionMapper::toSummaryDto).toList(), nextCursor));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<TranscriptSearchHitDto>> search(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit
+    ) {
+        if (!StringUtils.hasText(query)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<TranscriptSearchHitDto> hits = searchService.search(userId, query, pageSize).stream()
+                .map(TranscriptionMapper::toSearchHitDto)
                 .toList();
-        return ResponseEntity.ok(records);
+        return ResponseEntity.ok(hits);
+    }
+
+    /**
+     * Saves and deletes after {@code since}, the version of an earlier
+     * response. Without it, or when it is too far behind, the response only
+     * carries {@code resyncRequired} and the version to continue from once the
+     * list has been fetched again.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TranscriptionChangesDto> changes(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @RequestParam(value = "since", defaultValue = "0") long since
+    ) {
+        return ResponseEntity.ok(TranscriptionMapper.toChangesDto(transcriptionService.changesSince(userId, since)));
     }
 
     @PostMapping
     public ResponseEntity<TranscriptionRecordDto> create(
-            @RequestHeader(USER_HEADER) String userId,
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
             @Valid @RequestBody CreateTranscriptionRequest request
     ) {
-        Optional<String> resolved = resolveUser(userId);
-        if (resolved.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        String id = resolved.get();
-        TranscriptionRecord toSave = TranscriptionMapper.toModel(request, id);
-        TranscriptionRecord saved = transcriptionService.save(id, toSave);
+        TranscriptionRecord toSave = summarizer.complete(TranscriptionMapper.toModel(request, userId));
+        TranscriptionRecord saved = transcriptionService.save(userId, toSave);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .header(HttpHeaders.LOCATION, "/api/transcriptions/" + saved.getId())
                 .body(TranscriptionMapper.toDto(saved));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<TranscriptionRecordDto> findOne(
-            @RequestHeader(USER_HEADER) String userId,
-            @PathVariable String id
+    /**
+     * The record as JSON by default, or as NDJSON, CBOR or Smile when the
+     * client asks for one of them.
+     */
+    @GetMapping(value = "/{id}", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            TranscriptionJsonWriter.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            TranscriptionJsonWriter.APPLICATION_SMILE_VALUE
+    })
+    public ResponseEntity<StreamingResponseBody> findOne(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        Optional<String> resolved = resolveUser(userId);
-        if (resolved.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        Format format = negotiate(accept, Format.JSON, Format.NDJSON, Format.CBOR, Format.SMILE);
+        return transcriptionService.findOne(userId, id)
+                .map(record -> switch (format) {
+                    case JSON -> toJsonResponse(record, ifNoneMatch, acceptsGzip(acceptEncoding));
+                    case NDJSON -> toStreamedResponse(record, ifNoneMatch, format, jsonWriter::writeNdjson);
+                    case CBOR -> toStreamedResponse(record, ifNoneMatch, format, jsonWriter::writeCbor);
+                    case SMILE -> toStreamedResponse(record, ifNoneMatch, format, jsonWriter::writeSmile);
+                })
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @GetMapping("/{id}/lines")
+    public ResponseEntity<List<TranscriptLineDto>> findLines(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String id,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to
+    ) {
+        long fromMillis = StringUtils.hasText(from) ? Timestamps.parseMillis(from) : 0;
+        long toMillis = StringUtils.hasText(to) ? Timestamps.parseMillis(to) : Long.MAX_VALUE;
+        if (fromMillis < 0 || toMillis < 0) {
+            return ResponseEntity.badRequest().build();
         }
 
-        return transcriptionService.findOne(resolved.get(), id)
-                .map(TranscriptionMapper::toDto)
+        return transcriptionService.findOne(userId, id)
+                .map(record -> TranscriptionMapper.toLineDtos(record.linesBetween(fromMillis, toMillis)))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(
-            @RequestHeader(USER_HEADER) String userId,
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
             @PathVariable String id
     ) {
-        Optional<String> resolved = resolveUser(userId);
-        if (resolved.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        transcriptionService.delete(userId, id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Streams the record in a representation that is not cached.
+     */
+    private ResponseEntity<StreamingResponseBody> toStreamedResponse(
+            TranscriptionRecord record,
+            String ifNoneMatch,
+            Format format,
+            RecordWriter writer
+    ) {
+        String etag = TranscriptionResponseCache.etag(record, format.representation);
+        if (TranscriptionResponseCache.matches(ifNoneMatch, etag)) {
+            return notModified(etag).varyBy(HttpHeaders.ACCEPT).build();
         }
+        return ResponseEntity.ok()
+                .contentType(format.mediaType)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(out -> writer.write(record, out));
+    }
 
-        transcriptionService.delete(resolved.get(), id);
-        return ResponseEntity.noContent().build();
+    /**
+     * Serves the cached JSON, gzip-encoded when the client accepts it and the
+     * record is large enough. Records too large to cache are streamed. The
+     * ETag is known before anything is serialized, so a matching conditional
+     * request never reaches the serializer.
+     */
+    private ResponseEntity<StreamingResponseBody> toJsonResponse(
+            TranscriptionRecord record,
+            String ifNoneMatch,
+            boolean acceptsGzip
+    ) {
+        boolean gzip = acceptsGzip && responseCache.gzips(record);
+        String etag = TranscriptionResponseCache.etag(record, gzip ? Representation.JSON_GZIP : Representation.JSON);
+        if (TranscriptionResponseCache.matches(ifNoneMatch, etag)) {
+            return varyOnEncoding(notModified(etag)).build();
+        }
+        ResponseEntity.BodyBuilder response = varyOnEncoding(ResponseEntity.ok())
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(REVALIDATE);
+        if (!responseCache.cacheable(record)) {
+            return response.body(out -> jsonWriter.writeJson(record, out));
+        }
+        byte[] body;
+        if (gzip) {
+            body = responseCache.gzippedJson(record);
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        } else {
+            body = responseCache.json(record);
+        }
+        return response.contentLength(body.length).body(out -> out.write(body));
+    }
+
+    private ResponseEntity.BodyBuilder varyOnEncoding(ResponseEntity.BodyBuilder response) {
+        return responseCache.gzipEnabled()
+                ? response.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                : response.varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private static ResponseEntity.BodyBuilder notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE);
     }
 
-    private Optional<String> resolveUser(String userId) {
-        if (!StringUtils.hasText(userId)) {
-            return Optional.empty();
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            int semicolon = coding.indexOf(';');
+            String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).strip();
+            if (name.equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" is an explicit refusal.
+                return semicolon < 0 || !coding.substring(semicolon + 1).strip().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The offered format the client rates highest, taking each format's quality
+     * from the most specific Accept range that covers it; ties go to the format
+     * offered first. The mapping's produces condition has already turned away
+     * requests that accept none of them.
+     */
+    private static Format negotiate(String accept, Format... offered) {
+        List<MediaType> ranges = StringUtils.hasText(accept) ? MediaType.parseMediaTypes(accept) : List.of(MediaType.ALL);
+        Format best = offered[0];
+        double bestQuality = -1;
+        for (Format format : offered) {
+            double quality = 0;
+            int specificity = -1;
+            for (MediaType range : ranges) {
+                int rangeSpecificity = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+                if (range.includes(format.mediaType) && rangeSpecificity > specificity) {
+                    specificity = rangeSpecificity;
+                    quality = range.getQualityValue();
+                }
+            }
+            if (quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private enum Format {
+        JSON(MediaType.APPLICATION_JSON, Representation.JSON),
+        NDJSON(TranscriptionJsonWriter.APPLICATION_NDJSON, Representation.NDJSON),
+        CBOR(MediaType.APPLICATION_CBOR, Representation.CBOR),
+        SMILE(TranscriptionJsonWriter.APPLICATION_SMILE, Representation.SMILE);
+
+        private final MediaType mediaType;
+        private final Representation representation;
+
+        Format(MediaType mediaType, Representation representation) {
+            this.mediaType = mediaType;
+            this.representation = representation;
         }
-        return authService.findById(userId).map(profile -> userId);
     }
 
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(TranscriptionRecord record, OutputStream out) throws IOException;
+    }
 }
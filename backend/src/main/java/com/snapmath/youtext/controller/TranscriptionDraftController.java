@@ -0,0 +1,119 @@
+package com.snapmath.youtext.controller;
+
+import com.snapmath.youtext.dto.AppendLinesRequest;
+import com.snapmath.youtext.dto.CompleteDraftRequest;
+import com.snapmath.youtext.dto.OpenDraftRequest;
+import com.snapmath.youtext.dto.TranscriptionDraftDto;
+import com.snapmath.youtext.dto.TranscriptionSummaryDto;
+import com.snapmath.youtext.mapper.TranscriptionMapper;
+import com.snapmath.youtext.model.TranscriptionDraft;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.service.DraftResult;
+import com.snapmath.youtext.service.TranscriptionDraftService;
+import com.snapmath.youtext.web.AuthenticatedUserInterceptor;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/api/transcriptions/drafts")
+public class TranscriptionDraftController {
+
+    private final TranscriptionDraftService draftService;
+
+    public TranscriptionDraftController(TranscriptionDraftService draftService) {
+        this.draftService = draftService;
+    }
+
+    @PostMapping
+    public ResponseEntity<TranscriptionDraftDto> open(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @Valid @RequestBody OpenDraftRequest request
+    ) {
+        return draftService.open(userId, request.videoTitle(), TranscriptionMapper.normalizeVideoUrl(request.videoUrl()))
+                .map(draft -> ResponseEntity
+                        .status(HttpStatus.CREATED)
+                        .header(HttpHeaders.LOCATION, "/api/transcriptions/drafts/" + draft.id())
+                        .body(TranscriptionMapper.toDraftDto(draft)))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/{draftId}")
+    public ResponseEntity<TranscriptionDraftDto> find(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String draftId
+    ) {
+        return draftService.find(userId, draftId)
+                .map(TranscriptionMapper::toDraftDto)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @PostMapping("/{draftId}/lines")
+    public ResponseEntity<TranscriptionDraftDto> appendLines(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String draftId,
+            @Valid @RequestBody AppendLinesRequest request
+    ) {
+        DraftResult<TranscriptionDraft> result = draftService.append(
+                userId,
+                draftId,
+                request.offset(),
+                TranscriptionMapper.toLines(request.lines())
+        );
+        return toResponse(result, draft -> ResponseEntity.ok(TranscriptionMapper.toDraftDto(draft)));
+    }
+
+    @PostMapping("/{draftId}/complete")
+    public ResponseEntity<TranscriptionSummaryDto> complete(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String draftId,
+            @Valid @RequestBody CompleteDraftRequest request
+    ) {
+        List<String> highlights = request.highlights() != null
+                ? request.highlights().stream().map(String::trim).toList()
+                : List.of();
+        DraftResult<TranscriptionRecord> result = draftService.complete(
+                userId,
+                draftId,
+                request.summary(),
+                highlights,
+                request.transcript()
+        );
+        return toResponse(result, record -> ResponseEntity
+                .status(HttpStatus.CREATED)
+                .header(HttpHeaders.LOCATION, "/api/transcriptions/" + record.getId())
+                .body(TranscriptionMapper.toSummaryDto(record)));
+    }
+
+    @DeleteMapping("/{draftId}")
+    public ResponseEntity<Void> discard(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String draftId
+    ) {
+        return draftService.discard(userId, draftId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    private static <T, B> ResponseEntity<B> toResponse(DraftResult<T> result, Function<T, ResponseEntity<B>> onApplied) {
+        return switch (result.outcome()) {
+            case APPLIED -> onApplied.apply(result.value());
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            case OFFSET_MISMATCH, OUT_OF_ORDER, EMPTY -> ResponseEntity.status(HttpStatus.CONFLICT).build();
+            case LINE_LIMIT -> ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.snapmath.youtext.controller;
+
+import com.snapmath.youtext.mapper.TranscriptionExportWriter;
+import com.snapmath.youtext.mapper.TranscriptionExportWriter.Format;
+import com.snapmath.youtext.service.TranscriptionService;
+import com.snapmath.youtext.web.AuthenticatedUserInterceptor;
+import com.snapmath.youtext.web.TranscriptionResponseCache;
+import com.snapmath.youtext.web.TranscriptionResponseCache.Representation;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/transcriptions")
+public class TranscriptionExportController {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    private final TranscriptionService transcriptionService;
+    private final TranscriptionExportWriter exportWriter;
+
+    public TranscriptionExportController(
+            TranscriptionService transcriptionService,
+            TranscriptionExportWriter exportWriter
+    ) {
+        this.transcriptionService = transcriptionService;
+        this.exportWriter = exportWriter;
+    }
+
+    /**
+     * All of the user's records as a ZIP of {@code format} files, newest first,
+     * streamed as it is compressed.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @RequestParam(value = "format", defaultValue = "srt") String format
+    ) {
+        Optional<Format> parsed = Format.fromExtension(format);
+        if (parsed.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("transcriptions-" + format.toLowerCase() + ".zip"))
+                .cacheControl(CacheControl.noStore())
+                .body(out -> exportWriter.writeZip(transcriptionService.findAll(userId), parsed.get(), out));
+    }
+
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String id,
+            @RequestParam(value = "format", defaultValue = "srt") String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Optional<Format> parsed = Format.fromExtension(format);
+        if (parsed.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Format exportFormat = parsed.get();
+        return transcriptionService.findOne(userId, id)
+                .map(record -> {
+                    String etag = TranscriptionResponseCache.etag(record, representation(exportFormat));
+                    if (TranscriptionResponseCache.matches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(REVALIDATE)
+                                .<StreamingResponseBody>build();
+                    }
+                    return ResponseEntity.ok()
+                            .contentType(exportFormat.mediaType)
+                            .header(HttpHeaders.CONTENT_DISPOSITION,
+                                    attachment(TranscriptionExportWriter.fileName(record, exportFormat)))
+                            .eTag(etag)
+                            .cacheControl(REVALIDATE)
+                            .<StreamingResponseBody>body(out -> exportWriter.write(record, exportFormat, out));
+                })
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    private static String attachment(String fileName) {
+        ContentDisposition.Builder disposition = ContentDisposition.attachment();
+        // Titles may carry any letter; plain names are sent plain.
+        return (StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)
+                ? disposition.filename(fileName)
+                : disposition.filename(fileName, StandardCharsets.UTF_8)).build().toString();
+    }
+
+    private static Representation representation(Format format) {
+        return switch (format) {
+            case SRT -> Representation.SRT;
+            case VTT -> Representation.VTT;
+            case TEXT -> Representation.TEXT;
+        };
+    }
+}
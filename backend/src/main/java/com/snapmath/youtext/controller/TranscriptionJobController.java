@@ -0,0 +1,62 @@
+package com.snapmath.youtext.controller;
+
+import com.snapmath.youtext.dto.JobStatsDto;
+import com.snapmath.youtext.dto.JobStatusDto;
+import com.snapmath.youtext.dto.SubmitJobRequest;
+import com.snapmath.youtext.job.TranscriptionJobService;
+import com.snapmath.youtext.mapper.TranscriptionMapper;
+import com.snapmath.youtext.web.AuthenticatedUserInterceptor;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/transcriptions/jobs")
+public class TranscriptionJobController {
+
+    private final TranscriptionJobService jobService;
+
+    public TranscriptionJobController(TranscriptionJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<JobStatusDto> submit(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @Valid @RequestBody SubmitJobRequest request
+    ) {
+        return jobService.submit(userId, TranscriptionMapper.normalizeVideoUrl(request.videoUrl()))
+                .map(status -> ResponseEntity
+                        .status(HttpStatus.ACCEPTED)
+                        .header(HttpHeaders.LOCATION, "/api/transcriptions/jobs/" + status.id())
+                        .body(TranscriptionMapper.toJobStatusDto(status)))
+                .orElseGet(() -> ResponseEntity
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(jobService.retryAfter().toSeconds()))
+                        .build());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<JobStatsDto> stats() {
+        return ResponseEntity.ok(TranscriptionMapper.toJobStatsDto(jobService.stats()));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobStatusDto> find(
+            @RequestAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE) String userId,
+            @PathVariable String jobId
+    ) {
+        return jobService.find(userId, jobId)
+                .map(TranscriptionMapper::toJobStatusDto)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+}
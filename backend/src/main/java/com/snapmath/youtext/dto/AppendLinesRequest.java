@@ -0,0 +1,15 @@
+package com.snapmath.youtext.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record AppendLinesRequest(
+        @PositiveOrZero(message = "Offset must not be negative") Integer offset,
+        @NotEmpty(message = "At least one line is required")
+        @Size(max = 10000, message = "At most 10000 lines per batch") List<@Valid TranscriptLineDto> lines
+) {
+}
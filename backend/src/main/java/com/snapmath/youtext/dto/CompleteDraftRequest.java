@@ -0,0 +1,12 @@
+package com.snapmath.youtext.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.List;
+
+public record CompleteDraftRequest(
+        String summary,
+        List<@NotBlank(message = "Highlight must not be blank") String> highlights,
+        String transcript
+) {
+}
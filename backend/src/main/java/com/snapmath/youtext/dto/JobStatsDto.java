@@ -0,0 +1,18 @@
+package com.snapmath.youtext.dto;
+
+import java.util.Map;
+
+public record JobStatsDto(
+        int workers,
+        int activeWorkers,
+        int queueDepth,
+        int queueCapacity,
+        long submitted,
+        long rejected,
+        long completed,
+        long failed,
+        Map<String, StageLatencyDto> stageLatency
+) {
+    public record StageLatencyDto(long count, double averageMillis, double maxMillis) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.snapmath.youtext.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JobStatusDto(
+        String id,
+        String videoUrl,
+        String state,
+        List<StageStatusDto> stages,
+        String recordId,
+        String error,
+        Instant submittedAt,
+        Instant finishedAt
+) {
+    public record StageStatusDto(String stage, String state, double progress, Instant startedAt, Instant finishedAt) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.snapmath.youtext.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record OpenDraftRequest(
+        @NotBlank(message = "Video title is required") String videoTitle,
+        @NotBlank(message = "Video URL is required") String videoUrl
+) {
+}
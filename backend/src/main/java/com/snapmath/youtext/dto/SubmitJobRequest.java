@@ -0,0 +1,8 @@
+package com.snapmath.youtext.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record SubmitJobRequest(
+        @NotBlank(message = "Video URL is required") String videoUrl
+) {
+}
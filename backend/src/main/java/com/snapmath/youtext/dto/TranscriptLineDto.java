@@ -1,9 +1,12 @@
 package com.snapmath.youtext.dto;
 
+import com.snapmath.youtext.model.Timestamps;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 
 public record TranscriptLineDto(
-        @NotBlank(message = "Timestamp is required") String timestamp,
+        @NotBlank(message = "Timestamp is required")
+        @Pattern(regexp = Timestamps.PATTERN, message = "Timestamp must look like ss, mm:ss or hh:mm:ss") String timestamp,
         @NotBlank(message = "Text must not be empty") String text
 ) {
 }
@@ -0,0 +1,13 @@
+package com.snapmath.youtext.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record TranscriptSearchHitDto(
+        String id,
+        String videoTitle,
+        Instant createdAt,
+        List<String> matchedFields,
+        List<TranscriptLineDto> lines
+) {
+}
@@ -0,0 +1,11 @@
+package com.snapmath.youtext.dto;
+
+import java.util.List;
+
+public record TranscriptionChangesDto(
+        long version,
+        boolean resyncRequired,
+        List<TranscriptionSummaryDto> upserts,
+        List<String> deleted
+) {
+}
@@ -0,0 +1,13 @@
+package com.snapmath.youtext.dto;
+
+import java.time.Instant;
+
+public record TranscriptionDraftDto(
+        String id,
+        String videoTitle,
+        String videoUrl,
+        int lineCount,
+        Instant openedAt,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.snapmath.youtext.dto;
+
+import java.util.List;
+
+public record TranscriptionPageDto(
+        List<TranscriptionSummaryDto> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,12 @@
+package com.snapmath.youtext.dto;
+
+import java.time.Instant;
+
+public record TranscriptionSummaryDto(
+        String id,
+        String videoTitle,
+        String videoUrl,
+        String preview,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,6 @@
+package com.snapmath.youtext.event;
+
+public record SessionEndedEvent(
+        String userId
+) {
+}
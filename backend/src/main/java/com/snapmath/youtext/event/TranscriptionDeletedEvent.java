@@ -0,0 +1,7 @@
+package com.snapmath.youtext.event;
+
+public record TranscriptionDeletedEvent(
+        String userId,
+        String recordId
+) {
+}
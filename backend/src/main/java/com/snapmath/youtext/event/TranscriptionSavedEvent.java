@@ -0,0 +1,9 @@
+package com.snapmath.youtext.event;
+
+import com.snapmath.youtext.model.TranscriptionRecord;
+
+public record TranscriptionSavedEvent(
+        String userId,
+        TranscriptionRecord record
+) {
+}
@@ -0,0 +1,4 @@
+package com.snapmath.youtext.job;
+
+public record FetchedVideo(String videoUrl, String title) {
+}
@@ -0,0 +1,7 @@
+package com.snapmath.youtext.job;
+
+public enum JobStage {
+    FETCH,
+    TRANSCRIBE,
+    SUMMARIZE
+}
@@ -0,0 +1,8 @@
+package com.snapmath.youtext.job;
+
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
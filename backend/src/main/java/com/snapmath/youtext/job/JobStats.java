@@ -0,0 +1,18 @@
+package com.snapmath.youtext.job;
+
+import java.util.Map;
+
+public record JobStats(
+        int workers,
+        int activeWorkers,
+        int queueDepth,
+        int queueCapacity,
+        long submitted,
+        long rejected,
+        long completed,
+        long failed,
+        Map<JobStage, StageLatency> stageLatency
+) {
+    public record StageLatency(long count, double averageMillis, double maxMillis) {
+    }
+}
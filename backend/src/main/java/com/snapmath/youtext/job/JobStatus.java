@@ -0,0 +1,17 @@
+package com.snapmath.youtext.job;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JobStatus(
+        String id,
+        String userId,
+        String videoUrl,
+        JobState state,
+        List<StageStatus> stages,
+        String recordId,
+        String error,
+        Instant submittedAt,
+        Instant finishedAt
+) {
+}
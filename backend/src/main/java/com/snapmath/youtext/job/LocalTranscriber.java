@@ -0,0 +1,29 @@
+package com.snapmath.youtext.job;
+
+import com.snapmath.youtext.model.TranscriptLines;
+import org.springframework.stereotype.Component;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Stand-in transcriber producing placeholder lines every five seconds.
+ * Replace with a real implementation of {@link Transcriber}.
+ */
+@Component
+public class LocalTranscriber implements Transcriber {
+
+    private static final int LINES = 60;
+    private static final long LINE_MILLIS = 5_000;
+
+    @Override
+    public TranscriptLines transcribe(FetchedVideo video, DoubleConsumer progress) {
+        TranscriptLines.Builder lines = TranscriptLines.builder(LINES);
+        for (int i = 0; i < LINES; i++) {
+            long startMillis = i * LINE_MILLIS;
+            String timestamp = String.format("%d:%02d", startMillis / 60_000, startMillis / 1000 % 60);
+            lines.add(timestamp, "Placeholder segment " + (i + 1) + " of " + video.title(), startMillis);
+            progress.accept((i + 1) / (double) LINES);
+        }
+        return lines.build();
+    }
+}
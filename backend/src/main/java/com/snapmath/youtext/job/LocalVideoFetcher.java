@@ -0,0 +1,30 @@
+package com.snapmath.youtext.job;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Stand-in fetcher that downloads nothing: it only checks the URL and derives a
+ * title from it. Replace with a real implementation of {@link VideoFetcher}.
+ */
+@Component
+public class LocalVideoFetcher implements VideoFetcher {
+
+    @Override
+    public FetchedVideo fetch(String videoUrl) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(videoUrl.trim()).build();
+        String scheme = uri.getScheme();
+        if (uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+            throw new IllegalArgumentException("Unsupported video URL");
+        }
+        String videoId = uri.getQueryParams().getFirst("v");
+        if (videoId == null) {
+            List<String> segments = uri.getPathSegments();
+            videoId = segments.isEmpty() ? uri.getHost() : segments.get(segments.size() - 1);
+        }
+        return new FetchedVideo(videoUrl, "Video " + videoId);
+    }
+}
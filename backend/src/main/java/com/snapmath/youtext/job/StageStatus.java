@@ -0,0 +1,14 @@
+package com.snapmath.youtext.job;
+
+import java.time.Instant;
+
+public record StageStatus(JobStage stage, State state, double progress, Instant startedAt, Instant finishedAt) {
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        DONE,
+        SKIPPED,
+        FAILED
+    }
+}
@@ -0,0 +1,11 @@
+package com.snapmath.youtext.job;
+
+import com.snapmath.youtext.model.TranscriptLines;
+
+/**
+ * Last stage: condenses the transcript into a summary and highlights.
+ */
+public interface Summarizer {
+
+    TranscriptSummary summarize(String title, TranscriptLines lines) throws Exception;
+}
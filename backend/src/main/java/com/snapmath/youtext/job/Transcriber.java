@@ -0,0 +1,14 @@
+package com.snapmath.youtext.job;
+
+import com.snapmath.youtext.model.TranscriptLines;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Second stage: turns a fetched video into timed lines, sorted by start time.
+ * {@code progress} accepts the completed fraction, from 0 to 1.
+ */
+public interface Transcriber {
+
+    TranscriptLines transcribe(FetchedVideo video, DoubleConsumer progress) throws Exception;
+}
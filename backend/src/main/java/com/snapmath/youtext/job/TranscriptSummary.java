@@ -0,0 +1,6 @@
+package com.snapmath.youtext.job;
+
+import java.util.List;
+
+public record TranscriptSummary(String summary, List<String> highlights) {
+}
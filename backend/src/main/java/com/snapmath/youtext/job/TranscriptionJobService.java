@@ -0,0 +1,310 @@
+package com.snapmath.youtext.job;
+
+import com.snapmath.youtext.config.JobProperties;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.service.TranscriptionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Runs submitted videos through fetch, transcribe and summarize on a fixed pool
+ * of workers fed by a bounded queue, skipping all three for a video whose
+ * transcription is already held. A full queue rejects the submission rather
+ * than growing, and the caller is told how long the backlog should take to
+ * drain. Finished jobs stay visible for the retention period.
+ */
+@Service
+public class TranscriptionJobService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TranscriptionJobService.class);
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofMinutes(5);
+
+    private final VideoFetcher fetcher;
+    private final Transcriber transcriber;
+    private final Summarizer summarizer;
+    private final TranscriptionService transcriptionService;
+    private final JobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder jobNanos = new LongAdder();
+    private final Map<JobStage, LatencyRecorder> stageLatency = new EnumMap<>(JobStage.class);
+
+    public TranscriptionJobService(
+            VideoFetcher fetcher,
+            Transcriber transcriber,
+            Summarizer summarizer,
+            TranscriptionService transcriptionService,
+            JobProperties properties,
+            Environment environment
+    ) {
+        this.fetcher = fetcher;
+        this.transcriber = transcriber;
+        this.summarizer = summarizer;
+        this.transcriptionService = transcriptionService;
+        this.properties = properties;
+        for (JobStage stage : JobStage.values()) {
+            stageLatency.put(stage, new LatencyRecorder());
+        }
+        this.executor = new ThreadPoolExecutor(
+                properties.workers(),
+                properties.workers(),
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                workerThreads(Threading.VIRTUAL.isActive(environment)),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Queues a job, or returns empty when the queue is full.
+     */
+    public Optional<JobStatus> submit(String userId, String videoUrl) {
+        Job job = new Job(UUID.randomUUID().toString(), userId, videoUrl, Instant.now());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            rejected.increment();
+            return Optional.empty();
+        }
+        submitted.increment();
+        return Optional.of(job.status());
+    }
+
+    public Optional<JobStatus> find(String userId, String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null && job.userId.equals(userId) ? Optional.of(job.status()) : Optional.empty();
+    }
+
+    /**
+     * Estimated time for the current backlog to drain, from the average job duration so far.
+     */
+    public Duration retryAfter() {
+        long finished = completed.sum() + failed.sum();
+        long averageNanos = finished > 0 ? jobNanos.sum() / finished : 0;
+        long backlog = executor.getQueue().size() + executor.getActiveCount();
+        Duration estimate = Duration.ofNanos(averageNanos * backlog / properties.workers());
+        if (estimate.compareTo(MIN_RETRY_AFTER) < 0) {
+            return MIN_RETRY_AFTER;
+        }
+        return estimate.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : estimate;
+    }
+
+    public JobStats stats() {
+        Map<JobStage, JobStats.StageLatency> latency = new EnumMap<>(JobStage.class);
+        stageLatency.forEach((stage, recorder) -> latency.put(stage, recorder.snapshot()));
+        return new JobStats(
+                properties.workers(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                properties.queueCapacity(),
+                submitted.sum(),
+                rejected.sum(),
+                completed.sum(),
+                failed.sum(),
+                latency
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${youtext.jobs.eviction-interval:PT1M}")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(properties.retention());
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run(Job job) {
+        long started = System.nanoTime();
+        job.state = JobState.RUNNING;
+        try {
+            Optional<TranscriptionRecord> transcribed = transcriptionService.findTranscribed(job.videoUrl);
+            TranscriptionRecord record;
+            if (transcribed.isPresent()) {
+                job.skipStages();
+                record = transcribed.get().toBuilder().userId(job.userId).build();
+            } else {
+                record = transcribe(job);
+            }
+            job.recordId = transcriptionService.saveTranscribed(job.userId, record).getId();
+            job.finish(JobState.COMPLETED);
+            completed.increment();
+        } catch (Exception ex) {
+            job.error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            job.finish(JobState.FAILED);
+            failed.increment();
+            log.warn("Transcription job {} for {} failed: {}", job.id, job.videoUrl, job.error);
+        } finally {
+            jobNanos.add(System.nanoTime() - started);
+        }
+    }
+
+    private TranscriptionRecord transcribe(Job job) throws Exception {
+        FetchedVideo video = job.stage(JobStage.FETCH, () -> fetcher.fetch(job.videoUrl));
+        TranscriptLines lines = job.stage(JobStage.TRANSCRIBE,
+                () -> transcriber.transcribe(video, job.progress(JobStage.TRANSCRIBE)));
+        TranscriptSummary summary = job.stage(JobStage.SUMMARIZE,
+                () -> summarizer.summarize(video.title(), lines));
+
+        return TranscriptionRecord.builder()
+                .userId(job.userId)
+                .videoTitle(video.title())
+                .videoUrl(video.videoUrl())
+                .summary(summary.summary())
+                .highlights(summary.highlights())
+                .body(TranscriptBody.joined(lines, '\n'))
+                .build();
+    }
+
+    private static ThreadFactory workerThreads(boolean virtual) {
+        if (virtual) {
+            // The pool size still bounds how many jobs run at once.
+            return Thread.ofVirtual().name("transcription-worker-", 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "transcription-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface StageWork<T> {
+        T run() throws Exception;
+    }
+
+    private final class Job {
+        private final String id;
+        private final String userId;
+        private final String videoUrl;
+        private final Instant submittedAt;
+        private final Map<JobStage, StageProgress> stages = new EnumMap<>(JobStage.class);
+        private volatile JobState state = JobState.QUEUED;
+        private volatile String recordId;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private Job(String id, String userId, String videoUrl, Instant submittedAt) {
+            this.id = id;
+            this.userId = userId;
+            this.videoUrl = videoUrl;
+            this.submittedAt = submittedAt;
+            for (JobStage stage : JobStage.values()) {
+                stages.put(stage, new StageProgress());
+            }
+        }
+
+        <T> T stage(JobStage stage, StageWork<T> work) throws Exception {
+            StageProgress progress = stages.get(stage);
+            progress.startedAt = Instant.now();
+            progress.state = StageStatus.State.RUNNING;
+            long started = System.nanoTime();
+            try {
+                T result = work.run();
+                progress.progress = 1;
+                progress.state = StageStatus.State.DONE;
+                return result;
+            } catch (Exception ex) {
+                progress.state = StageStatus.State.FAILED;
+                throw ex;
+            } finally {
+                stageLatency.get(stage).record(System.nanoTime() - started);
+                progress.finishedAt = Instant.now();
+            }
+        }
+
+        /**
+         * Marks every stage skipped when the video was already transcribed.
+         */
+        void skipStages() {
+            Instant now = Instant.now();
+            stages.values().forEach(progress -> {
+                progress.state = StageStatus.State.SKIPPED;
+                progress.progress = 1;
+                progress.startedAt = now;
+                progress.finishedAt = now;
+            });
+        }
+
+        void finish(JobState finalState) {
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        DoubleConsumer progress(JobStage stage) {
+            StageProgress progress = stages.get(stage);
+            return fraction -> progress.progress = Math.max(0, Math.min(1, fraction));
+        }
+
+        JobStatus status() {
+            List<StageStatus> stageStatuses = new ArrayList<>(stages.size());
+            stages.forEach((stage, progress) -> stageStatuses.add(new StageStatus(
+                    stage, progress.state, progress.progress, progress.startedAt, progress.finishedAt)));
+            return new JobStatus(id, userId, videoUrl, state, stageStatuses, recordId, error, submittedAt, finishedAt);
+        }
+    }
+
+    private static final class StageProgress {
+        private volatile StageStatus.State state = StageStatus.State.PENDING;
+        private volatile double progress;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+    }
+
+    private static final class LatencyRecorder {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        JobStats.StageLatency snapshot() {
+            long samples = count.sum();
+            double average = samples > 0 ? totalNanos.sum() / (double) samples / 1_000_000 : 0;
+            return new JobStats.StageLatency(samples, average, maxNanos.get() / 1_000_000.0);
+        }
+    }
+}
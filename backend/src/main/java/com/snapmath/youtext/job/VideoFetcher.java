@@ -0,0 +1,9 @@
+package com.snapmath.youtext.job;
+
+/**
+ * First stage of a job: resolves the submitted URL to a video and its metadata.
+ */
+public interface VideoFetcher {
+
+    FetchedVideo fetch(String videoUrl) throws Exception;
+}
@@ -0,0 +1,282 @@
+package com.snapmath.youtext.mapper;
+
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes transcripts as SRT or WebVTT subtitles or as plain text, line by line
+ * from the columnar buffer, and many of them as one ZIP archive. A cue ends
+ * where the next line starts; the last one is shown for {@link #LAST_CUE_MILLIS}.
+ * Nothing is buffered beyond a scratch array and the writer's own buffer, so
+ * memory does not grow with the transcript or the archive. Each write is timed
+ * as {@code youtext.serialization}.
+ */
+@Component
+public class TranscriptionExportWriter {
+
+    public static final long LAST_CUE_MILLIS = 5_000;
+    private static final int MAX_ENTRY_TITLE_LENGTH = 80;
+
+    private final Timer[] timers = new Timer[Format.values().length];
+    private final Timer zipTimer;
+
+    public TranscriptionExportWriter(MeterRegistry registry) {
+        for (Format format : Format.values()) {
+            timers[format.ordinal()] = serializationTimer(registry, format.extension);
+        }
+        this.zipTimer = serializationTimer(registry, "zip");
+    }
+
+    public void write(TranscriptionRecord record, Format format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        try {
+            Writer writer = writer(out);
+            new CueWriter(writer).write(record.getBody().lines(), format);
+            writer.flush();
+        } finally {
+            timers[format.ordinal()].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * One entry per record, named after its title and id. Entries are deflated
+     * as they are written, so the archive streams without knowing its size.
+     */
+    public void writeZip(Iterable<TranscriptionRecord> records, Format format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        // The servlet container owns the response stream; closing the archive only releases the deflater.
+        try (ZipOutputStream zip = new ZipOutputStream(StreamUtils.nonClosing(out), StandardCharsets.UTF_8)) {
+            Writer writer = writer(zip);
+            CueWriter cueWriter = new CueWriter(writer);
+            for (TranscriptionRecord record : records) {
+                ZipEntry entry = new ZipEntry(fileName(record, format));
+                entry.setTime(record.getCreatedAt().toEpochMilli());
+                zip.putNextEntry(entry);
+                cueWriter.write(record.getBody().lines(), format);
+                writer.flush();
+                zip.closeEntry();
+            }
+        } finally {
+            zipTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The record's title reduced to letters, digits and a little punctuation,
+     * followed by its id, so names are unique within a user's archive.
+     */
+    public static String fileName(TranscriptionRecord record, Format format) {
+        String title = record.getVideoTitle() != null ? record.getVideoTitle().strip() : "";
+        StringBuilder name = new StringBuilder(Math.min(title.length(), MAX_ENTRY_TITLE_LENGTH) + 48);
+        for (int i = 0; i < title.length() && name.length() < MAX_ENTRY_TITLE_LENGTH; i++) {
+            char c = title.charAt(i);
+            name.append(Character.isLetterOrDigit(c) || c == ' ' || c == '-' || c == '_' ? c : '_');
+        }
+        if (!name.isEmpty()) {
+            name.append('-');
+        }
+        return name.append(record.getId()).append('.').append(format.extension).toString();
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private static Timer serializationTimer(MeterRegistry registry, String format) {
+        return Timer.builder("youtext.serialization")
+                .description("Time to write one record to the response stream")
+                .tag("format", format)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public enum Format {
+        SRT("srt", new MediaType("application", "x-subrip", StandardCharsets.UTF_8)),
+        VTT("vtt", new MediaType("text", "vtt", StandardCharsets.UTF_8)),
+        TEXT("txt", new MediaType("text", "plain", StandardCharsets.UTF_8));
+
+        public final String extension;
+        public final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public static Optional<Format> fromExtension(String extension) {
+            return Arrays.stream(values())
+                    .filter(format -> format.extension.equalsIgnoreCase(extension))
+                    .findFirst();
+        }
+    }
+
+    private static final class CueWriter {
+        private final Writer out;
+        private final char[] time = new char[16];
+        private char[] scratch = new char[128];
+
+        private CueWriter(Writer out) {
+            this.out = out;
+        }
+
+        void write(TranscriptLines lines, Format format) throws IOException {
+            if (format == Format.VTT) {
+                out.write("WEBVTT\n\n");
+            }
+            int cue = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                int length = copyText(lines, i);
+                if (isBlank(length)) {
+                    continue;
+                }
+                long start = lines.startMillis(i);
+                if (format == Format.TEXT) {
+                    out.write('[');
+                    writeTime(start, '\0');
+                    out.write("] ");
+                    writeText(length, ' ', false);
+                    out.write('\n');
+                    continue;
+                }
+                long end = i + 1 < lines.size() ? lines.startMillis(i + 1) : start + LAST_CUE_MILLIS;
+                char fractionSeparator = format == Format.SRT ? ',' : '.';
+                if (format == Format.SRT) {
+                    writeNumber(++cue);
+                    out.write('\n');
+                }
+                writeTime(start, fractionSeparator);
+                out.write(" --> ");
+                writeTime(end, fractionSeparator);
+                out.write('\n');
+                // A blank line ends a cue, so breaks inside a line collapse to one.
+                writeText(length, '\n', format == Format.VTT);
+                out.write("\n\n");
+            }
+        }
+
+        private int copyText(TranscriptLines lines, int index) {
+            int length = lines.textLength(index);
+            if (scratch.length < length) {
+                scratch = new char[Math.max(length, scratch.length * 2)];
+            }
+            lines.getTextChars(index, 0, length, scratch, 0);
+            return length;
+        }
+
+        private boolean isBlank(int length) {
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace(scratch[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Writes the copied text without leading or trailing line breaks, with
+         * each run of breaks replaced by {@code lineBreak}.
+         */
+        private void writeText(int length, char lineBreak, boolean escapeMarkup) throws IOException {
+            boolean started = false;
+            boolean pendingBreak = false;
+            int runStart = 0;
+            for (int i = 0; i < length; i++) {
+                char c = scratch[i];
+                boolean isBreak = c == '\n' || c == '\r';
+                String escaped = escapeMarkup ? escape(c) : null;
+                if (!isBreak && escaped == null) {
+                    if (pendingBreak) {
+                        out.write(lineBreak);
+                        pendingBreak = false;
+                    }
+                    started = true;
+                    continue;
+                }
+                out.write(scratch, runStart, i - runStart);
+                runStart = i + 1;
+                if (isBreak) {
+                    pendingBreak = started;
+                    continue;
+                }
+                if (pendingBreak) {
+                    out.write(lineBreak);
+                    pendingBreak = false;
+                }
+                started = true;
+                out.write(escaped);
+            }
+            out.write(scratch, runStart, length - runStart);
+        }
+
+        /**
+         * WebVTT cue text is markup: a literal ampersand or angle bracket must be
+         * escaped, or "-->" would end the cue.
+         */
+        private static String escape(char c) {
+            return switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                default -> null;
+            };
+        }
+
+        /**
+         * hh:mm:ss followed by the separator and milliseconds, or without a
+         * fraction when the separator is {@code '\0'}. Hours take more than two
+         * digits when needed.
+         */
+        private void writeTime(long millis, char fractionSeparator) throws IOException {
+            long hours = millis / 3_600_000;
+            if (hours > 99) {
+                out.write(Long.toString(hours / 100));
+                hours %= 100;
+            }
+            int n = 0;
+            n = twoDigits(hours, n);
+            time[n++] = ':';
+            n = twoDigits(millis / 60_000 % 60, n);
+            time[n++] = ':';
+            n = twoDigits(millis / 1000 % 60, n);
+            if (fractionSeparator != '\0') {
+                long fraction = millis % 1000;
+                time[n++] = fractionSeparator;
+                time[n++] = (char) ('0' + fraction / 100);
+                n = twoDigits(fraction % 100, n);
+            }
+            out.write(time, 0, n);
+        }
+
+        private void writeNumber(int value) throws IOException {
+            int n = time.length;
+            do {
+                time[--n] = (char) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            out.write(time, n, time.length - n);
+        }
+
+        private int twoDigits(long value, int n) {
+            time[n] = (char) ('0' + value / 10);
+            time[n + 1] = (char) ('0' + value % 10);
+            return n + 2;
+        }
+    }
+}
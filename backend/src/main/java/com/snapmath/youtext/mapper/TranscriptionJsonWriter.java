@@ -0,0 +1,290 @@
+package com.snapmath.youtext.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.snapmath.youtext.dto.TranscriptionRecordDto;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a record straight from the model to a response stream, in the shape of
+ * {@link TranscriptionRecordDto}, without building the DTO or its line list.
+ * Line timestamps and texts are copied out of the columnar buffer through one
+ * scratch array, and a derived transcript is streamed from the lines instead of
+ * being joined into a string first. Each write is timed, stream time included,
+ * as {@code youtext.serialization}.
+ *
+ * <p>The same shape is written as CBOR or Smile for clients that ask for them.
+ * Both formats length-prefix strings, so there the transcript is joined first.
+ */
+@Component
+public class TranscriptionJsonWriter {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private static final int NDJSON_LINES_PER_FLUSH = 256;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+    private final Timer jsonTimer;
+    private final Timer ndjsonTimer;
+    private final Timer cborTimer;
+    private final Timer smileTimer;
+
+    public TranscriptionJsonWriter(ObjectMapper objectMapper, MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborMapper(objectMapper);
+        this.smileMapper = smileMapper(objectMapper);
+        this.jsonTimer = serializationTimer(registry, "json");
+        this.ndjsonTimer = serializationTimer(registry, "ndjson");
+        this.cborTimer = serializationTimer(registry, "cbor");
+        this.smileTimer = serializationTimer(registry, "smile");
+    }
+
+    /**
+     * A mapper configured like {@code objectMapper} that reads and writes CBOR.
+     */
+    public static ObjectMapper cborMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory());
+    }
+
+    /**
+     * A mapper configured like {@code objectMapper} that reads and writes Smile.
+     */
+    public static ObjectMapper smileMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new SmileFactory());
+    }
+
+    public void writeJson(TranscriptionRecord record, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        try {
+            doWrite(objectMapper, record, out);
+        } finally {
+            jsonTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void writeCbor(TranscriptionRecord record, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        try {
+            doWrite(cborMapper, record, out);
+        } finally {
+            cborTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void writeSmile(TranscriptionRecord record, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        try {
+            doWrite(smileMapper, record, out);
+        } finally {
+            smileTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * One JSON document per line: the record without its lines first, then one
+     * document per transcript line. Output is flushed every few hundred lines so
+     * clients can render as it arrives.
+     */
+    public void writeNdjson(TranscriptionRecord record, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        try {
+            doWriteNdjson(record, out);
+        } finally {
+            ndjsonTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void doWrite(ObjectMapper mapper, TranscriptionRecord record, OutputStream out) throws IOException {
+        TranscriptBody body = record.getBody();
+        TranscriptLines lines = body.lines();
+        try (JsonGenerator generator = open(mapper, out)) {
+            LineWriter lineWriter = new LineWriter(generator, lines);
+            generator.writeStartObject();
+            writeFields(generator, record, body);
+            generator.writeArrayFieldStart("lines");
+            for (int i = 0; i < lines.size(); i++) {
+                lineWriter.write(i);
+            }
+            generator.writeEndArray();
+            generator.writeObjectField("createdAt", record.getCreatedAt());
+            generator.writeEndObject();
+        }
+    }
+
+    private void doWriteNdjson(TranscriptionRecord record, OutputStream out) throws IOException {
+        TranscriptBody body = record.getBody();
+        TranscriptLines lines = body.lines();
+        try (JsonGenerator generator = open(objectMapper, out)) {
+            LineWriter lineWriter = new LineWriter(generator, lines);
+            generator.setRootValueSeparator(null);
+            generator.writeStartObject();
+            writeFields(generator, record, body);
+            generator.writeObjectField("createdAt", record.getCreatedAt());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+
+            for (int i = 0; i < lines.size(); i++) {
+                lineWriter.write(i);
+                generator.writeRaw('\n');
+                if ((i + 1) % NDJSON_LINES_PER_FLUSH == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private static Timer serializationTimer(MeterRegistry registry, String format) {
+        return Timer.builder("youtext.serialization")
+                .description("Time to write one record to the response stream")
+                .tag("format", format)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static JsonGenerator open(ObjectMapper mapper, OutputStream out) throws IOException {
+        // The servlet container owns the response stream.
+        return mapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static void writeFields(JsonGenerator generator, TranscriptionRecord record, TranscriptBody body)
+            throws IOException {
+        generator.writeStringField("id", record.getId());
+        generator.writeStringField("videoTitle", record.getVideoTitle());
+        generator.writeStringField("videoUrl", record.getVideoUrl());
+        generator.writeStringField("summary", record.getSummary());
+        generator.writeArrayFieldStart("highlights");
+        for (String highlight : record.getHighlights()) {
+            generator.writeString(highlight);
+        }
+        generator.writeEndArray();
+        generator.writeFieldName("transcript");
+        // CBOR and Smile generators need a string's length in bytes up front, so they cannot take a reader.
+        if (body.isTranscriptDerived() && !generator.canWriteBinaryNatively()) {
+            TranscriptLines lines = body.lines();
+            int length = lines.joinedLength(body.isTimestamped());
+            generator.writeString(new JoinedTextReader(lines, body.transcriptSeparator(), body.isTimestamped()), length);
+        } else {
+            generator.writeString(body.transcript());
+        }
+    }
+
+    private static final class LineWriter {
+        private final JsonGenerator generator;
+        private final TranscriptLines lines;
+        private char[] scratch = new char[128];
+
+        private LineWriter(JsonGenerator generator, TranscriptLines lines) {
+            this.generator = generator;
+            this.lines = lines;
+        }
+
+        void write(int index) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName("timestamp");
+            int length = lines.timestampLength(index);
+            lines.getTimestampChars(index, ensure(length), 0);
+            generator.writeString(scratch, 0, length);
+            generator.writeFieldName("text");
+            length = lines.textLength(index);
+            lines.getTextChars(index, 0, length, ensure(length), 0);
+            generator.writeString(scratch, 0, length);
+            generator.writeEndObject();
+        }
+
+        private char[] ensure(int length) {
+            if (scratch.length < length) {
+                scratch = new char[Math.max(length, scratch.length * 2)];
+            }
+            return scratch;
+        }
+    }
+
+    private static final class JoinedTextReader extends Reader {
+        private final TranscriptLines lines;
+        private final char separator;
+        private final boolean timestamped;
+        // The "[timestamp] " of the current line, when timestamped.
+        private char[] prefix = new char[16];
+        private int prefixLength;
+        private int prefixPosition;
+        private int line;
+        private int position;
+
+        private JoinedTextReader(TranscriptLines lines, char separator, boolean timestamped) {
+            this.lines = lines;
+            this.separator = separator;
+            this.timestamped = timestamped;
+            if (!lines.isEmpty()) {
+                startLine();
+            }
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int written = 0;
+            while (written < length && line < lines.size()) {
+                if (prefixPosition < prefixLength) {
+                    int count = Math.min(prefixLength - prefixPosition, length - written);
+                    System.arraycopy(prefix, prefixPosition, buffer, offset + written, count);
+                    prefixPosition += count;
+                    written += count;
+                    continue;
+                }
+                int remaining = lines.textLength(line) - position;
+                if (remaining == 0) {
+                    line++;
+                    position = 0;
+                    if (line < lines.size()) {
+                        buffer[offset + written++] = separator;
+                        startLine();
+                    }
+                    continue;
+                }
+                int count = Math.min(remaining, length - written);
+                lines.getTextChars(line, position, position + count, buffer, offset + written);
+                position += count;
+                written += count;
+            }
+            return written == 0 && length > 0 ? -1 : written;
+        }
+
+        private void startLine() {
+            prefixPosition = 0;
+            if (!timestamped) {
+                return;
+            }
+            int stamp = lines.timestampLength(line);
+            if (prefix.length < stamp + 3) {
+                prefix = new char[stamp + 3];
+            }
+            prefix[0] = '[';
+            lines.getTimestampChars(line, prefix, 1);
+            prefix[stamp + 1] = ']';
+            prefix[stamp + 2] = ' ';
+            prefixLength = stamp + 3;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
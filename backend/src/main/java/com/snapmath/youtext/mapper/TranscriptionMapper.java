@@ -1,27 +1,60 @@
 package com.snapmath.youtext.mapper;
 
 import com.snapmath.youtext.dto.CreateTranscriptionRequest;
+import com.snapmath.youtext.dto.JobStatsDto;
+import com.snapmath.youtext.dto.JobStatusDto;
 import com.snapmath.youtext.dto.TranscriptLineDto;
+import com.snapmath.youtext.dto.TranscriptSearchHitDto;
+import com.snapmath.youtext.dto.TranscriptionChangesDto;
+import com.snapmath.youtext.dto.TranscriptionDraftDto;
 import com.snapmath.youtext.dto.TranscriptionRecordDto;
+import com.snapmath.youtext.dto.TranscriptionSummaryDto;
+import com.snapmath.youtext.job.JobStats;
+import com.snapmath.youtext.job.JobStatus;
+import com.snapmath.youtext.model.TranscriptionCursor;
+import com.snapmath.youtext.model.TranscriptionDraft;
 import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.model.Timestamps;
 import com.snapmath.youtext.model.TranscriptLine;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.search.SearchHit;
+import com.snapmath.youtext.service.TranscriptionChanges;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public final class TranscriptionMapper {
+    private static final int PREVIEW_LENGTH = 160;
+    private static final char CURSOR_SEPARATOR = '|';
+    private static final String YOUTUBE_WATCH_URL = "https://www.youtube.com/watch?v=";
+    private static final Set<String> YOUTUBE_ID_PATHS = Set.of("shorts", "embed", "live", "v");
+    private static final Set<String> TRACKING_PARAMETERS = Set.of("fbclid", "gclid", "si", "feature", "ref");
+
     private TranscriptionMapper() {
     }
 
     public static TranscriptionRecord toModel(CreateTranscriptionRequest request, String userId) {
-        List<TranscriptLine> lines = request.lines().stream()
-                .map(line -> new TranscriptLine(line.timestamp(), line.text()))
-                .toList();
-        List<String> highlights = request.highlights().stream().map(String::trim).toList();
+        TranscriptLines lines = toLines(request.lines());
+        List<String> highlights = request.highlights() != null
+                ? request.highlights().stream().map(String::trim).toList()
+                : List.of();
 
         return TranscriptionRecord.builder()
                 .userId(userId)
                 .videoTitle(request.videoTitle())
-                .videoUrl(request.videoUrl())
+                .videoUrl(normalizeVideoUrl(request.videoUrl()))
                 .summary(request.summary())
                 .highlights(highlights)
                 .transcript(request.transcript())
@@ -29,10 +62,108 @@ public final class TranscriptionMapper {
                 .build();
     }
 
+    /**
+     * Canonical form of a video URL, so the same video submitted through
+     * different links is recognised as one. YouTube links of every shape
+     * (youtu.be, shorts, embed, mobile, extra query parameters) become
+     * {@code https://www.youtube.com/watch?v=<id>}. Other http(s) URLs get a
+     * lower-case scheme and host, no default port, fragment, tracking parameters
+     * or trailing slash. Anything else is only trimmed.
+     */
+    public static String normalizeVideoUrl(String videoUrl) {
+        String trimmed = videoUrl.trim();
+        UriComponents uri;
+        try {
+            uri = UriComponentsBuilder.fromUriString(trimmed).build();
+        } catch (IllegalArgumentException ex) {
+            return trimmed;
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : null;
+        if (uri.getHost() == null || !("http".equals(scheme) || "https".equals(scheme))) {
+            return trimmed;
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        String youtubeId = youtubeId(host, uri);
+        if (youtubeId != null) {
+            return YOUTUBE_WATCH_URL + youtubeId;
+        }
+
+        UriComponentsBuilder normalized = UriComponentsBuilder.newInstance()
+                .scheme(scheme)
+                .host(host);
+        if (uri.getPort() != -1 && !(uri.getPort() == 80 && "http".equals(scheme))
+                && !(uri.getPort() == 443 && "https".equals(scheme))) {
+            normalized.port(uri.getPort());
+        }
+        String path = uri.getPath();
+        if (path != null && path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        normalized.path(path);
+        uri.getQueryParams().forEach((name, values) -> {
+            if (!isTrackingParameter(name)) {
+                normalized.queryParam(name, values.toArray());
+            }
+        });
+        return normalized.build().toUriString();
+    }
+
+    private static String youtubeId(String host, UriComponents uri) {
+        String bare = host.startsWith("www.") || host.startsWith("m.") ? host.substring(host.indexOf('.') + 1) : host;
+        List<String> segments = uri.getPathSegments();
+        if (bare.equals("youtu.be")) {
+            return segments.isEmpty() ? null : segments.get(0);
+        }
+        if (!bare.equals("youtube.com") && !bare.equals("music.youtube.com") && !bare.equals("youtube-nocookie.com")) {
+            return null;
+        }
+        String id = uri.getQueryParams().getFirst("v");
+        if (id == null && segments.size() >= 2 && YOUTUBE_ID_PATHS.contains(segments.get(0))) {
+            id = segments.get(1);
+        }
+        return id != null && !id.isBlank() ? id : null;
+    }
+
+    private static boolean isTrackingParameter(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.startsWith("utm_") || TRACKING_PARAMETERS.contains(lower);
+    }
+
+    /**
+     * Parses the timestamps and orders the lines by start time; lines with equal
+     * start times keep their request order.
+     */
+    public static TranscriptLines toLines(List<TranscriptLineDto> requestLines) {
+        int count = requestLines.size();
+        long[] startMillis = new long[count];
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            startMillis[i] = Math.max(0, Timestamps.parseMillis(requestLines.get(i).timestamp()));
+            sorted &= i == 0 || startMillis[i - 1] <= startMillis[i];
+        }
+
+        TranscriptLines.Builder lines = TranscriptLines.builder(count);
+        if (sorted) {
+            for (int i = 0; i < count; i++) {
+                TranscriptLineDto line = requestLines.get(i);
+                lines.add(line.timestamp(), line.text(), startMillis[i]);
+            }
+        } else {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> startMillis[i]));
+            for (int index : order) {
+                TranscriptLineDto line = requestLines.get(index);
+                lines.add(line.timestamp(), line.text(), startMillis[index]);
+            }
+        }
+        return lines.build();
+    }
+
     public static TranscriptionRecordDto toDto(TranscriptionRecord record) {
-        List<TranscriptLineDto> lines = record.getLines().stream()
-                .map(line -> new TranscriptLineDto(line.timestamp(), line.text()))
-                .toList();
+        List<TranscriptLineDto> lines = toLineDtos(record.getLines());
 
         return new TranscriptionRecordDto(
                 record.getId(),
@@ -45,4 +176,129 @@ public final class TranscriptionMapper {
                 record.getCreatedAt()
         );
     }
+
+    public static TranscriptionSummaryDto toSummaryDto(TranscriptionRecord record) {
+        return new TranscriptionSummaryDto(
+                record.getId(),
+                record.getVideoTitle(),
+                record.getVideoUrl(),
+                preview(record.getSummary()),
+                record.getCreatedAt()
+        );
+    }
+
+    public static TranscriptionChangesDto toChangesDto(TranscriptionChanges changes) {
+        return new TranscriptionChangesDto(
+                changes.version(),
+                changes.resyncRequired(),
+                changes.upserts().stream().map(TranscriptionMapper::toSummaryDto).toList(),
+                changes.deletedIds()
+        );
+    }
+
+    public static TranscriptionDraftDto toDraftDto(TranscriptionDraft draft) {
+        return new TranscriptionDraftDto(
+                draft.id(),
+                draft.videoTitle(),
+                draft.videoUrl(),
+                draft.lineCount(),
+                draft.openedAt(),
+                draft.expiresAt()
+        );
+    }
+
+    public static JobStatusDto toJobStatusDto(JobStatus status) {
+        List<JobStatusDto.StageStatusDto> stages = status.stages().stream()
+                .map(stage -> new JobStatusDto.StageStatusDto(
+                        lowerCase(stage.stage()),
+                        lowerCase(stage.state()),
+                        stage.progress(),
+                        stage.startedAt(),
+                        stage.finishedAt()
+                ))
+                .toList();
+        return new JobStatusDto(
+                status.id(),
+                status.videoUrl(),
+                lowerCase(status.state()),
+                stages,
+                status.recordId(),
+                status.error(),
+                status.submittedAt(),
+                status.finishedAt()
+        );
+    }
+
+    public static JobStatsDto toJobStatsDto(JobStats stats) {
+        Map<String, JobStatsDto.StageLatencyDto> latency = new LinkedHashMap<>();
+        stats.stageLatency().forEach((stage, value) -> latency.put(
+                lowerCase(stage),
+                new JobStatsDto.StageLatencyDto(value.count(), value.averageMillis(), value.maxMillis())
+        ));
+        return new JobStatsDto(
+                stats.workers(),
+                stats.activeWorkers(),
+                stats.queueDepth(),
+                stats.queueCapacity(),
+                stats.submitted(),
+                stats.rejected(),
+                stats.completed(),
+                stats.failed(),
+                latency
+        );
+    }
+
+    public static TranscriptSearchHitDto toSearchHitDto(SearchHit hit) {
+        TranscriptionRecord record = hit.record();
+        List<String> fields = hit.fields().stream()
+                .map(TranscriptionMapper::lowerCase)
+                .toList();
+        return new TranscriptSearchHitDto(
+                record.getId(),
+                record.getVideoTitle(),
+                record.getCreatedAt(),
+                fields,
+                toLineDtos(hit.lines())
+        );
+    }
+
+    public static List<TranscriptLineDto> toLineDtos(List<TranscriptLine> lines) {
+        return lines.stream()
+                .map(line -> new TranscriptLineDto(line.timestamp(), line.text()))
+                .toList();
+    }
+
+    public static String toCursor(TranscriptionRecord record) {
+        String raw = record.getCreatedAt().toString() + CURSOR_SEPARATOR + record.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Optional<TranscriptionCursor> parseCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                return Optional.empty();
+            }
+            Instant createdAt = Instant.parse(raw.substring(0, separator));
+            return Optional.of(new TranscriptionCursor(createdAt, raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static String lowerCase(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String preview(String text) {
+        if (text == null || text.length() <= PREVIEW_LENGTH) {
+            return text;
+        }
+        int end = PREVIEW_LENGTH;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end).stripTrailing() + "…";
+    }
 }
@@ -0,0 +1,30 @@
+package com.snapmath.youtext.metrics;
+
+import com.snapmath.youtext.event.TranscriptionSavedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the size of every saved transcript, including those durable storage
+ * replays on startup: recovery runs once listeners are registered.
+ */
+@Component
+public class TranscriptLineMetrics {
+
+    private final DistributionSummary lines;
+
+    public TranscriptLineMetrics(MeterRegistry registry) {
+        this.lines = DistributionSummary.builder("youtext.transcript.lines")
+                .description("Lines per saved transcript")
+                .baseUnit("lines")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @EventListener
+    public void onSaved(TranscriptionSavedEvent event) {
+        lines.record(event.record().getBodyRef().lineCount());
+    }
+}
@@ -0,0 +1,192 @@
+package com.snapmath.youtext.metrics;
+
+import com.snapmath.youtext.job.TranscriptionJobService;
+import com.snapmath.youtext.search.TranscriptSearchIndex;
+import com.snapmath.youtext.service.InMemoryAuthService;
+import com.snapmath.youtext.service.SessionStore;
+import com.snapmath.youtext.service.TranscriptBodyTier;
+import com.snapmath.youtext.service.TranscriptionDraftService;
+import com.snapmath.youtext.service.TranscriptionService;
+import com.snapmath.youtext.web.PrincipalCache;
+import com.snapmath.youtext.web.RateLimiter;
+import com.snapmath.youtext.web.TranscriptionResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the counters the services already keep as gauges and function
+ * counters. Nothing is recorded on the request path: every value is read from
+ * the owning service when the registry is scraped.
+ */
+@Component
+public class YouTextMeterBinder implements MeterBinder {
+
+    private final TranscriptionService transcriptionService;
+    private final SessionStore sessions;
+    private final PrincipalCache principalCache;
+    private final TranscriptSearchIndex searchIndex;
+    private final TranscriptBodyTier tier;
+    private final TranscriptionJobService jobService;
+    private final TranscriptionDraftService draftService;
+    private final TranscriptionResponseCache responseCache;
+    private final RateLimiter rateLimiter;
+
+    public YouTextMeterBinder(
+            TranscriptionService transcriptionService,
+            InMemoryAuthService authService,
+            PrincipalCache principalCache,
+            TranscriptSearchIndex searchIndex,
+            TranscriptBodyTier tier,
+            TranscriptionJobService jobService,
+            TranscriptionDraftService draftService,
+            TranscriptionResponseCache responseCache,
+            RateLimiter rateLimiter
+    ) {
+        this.transcriptionService = transcriptionService;
+        this.sessions = authService.sessions();
+        this.principalCache = principalCache;
+        this.searchIndex = searchIndex;
+        this.tier = tier;
+        this.jobService = jobService;
+        this.draftService = draftService;
+        this.responseCache = responseCache;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("youtext.store.users", transcriptionService, s -> s.stats().users())
+                .description("Users with at least one stored transcription")
+                .register(registry);
+        Gauge.builder("youtext.store.records", transcriptionService, s -> s.stats().records())
+                .description("Stored transcription records")
+                .register(registry);
+        Gauge.builder("youtext.store.lines", transcriptionService, s -> s.stats().lines())
+                .description("Transcript lines across all stored records")
+                .register(registry);
+        Gauge.builder("youtext.store.heap", transcriptionService, s -> s.stats().estimatedBytes())
+                .description("Estimated in-heap size of stored records, counting spilled bodies as resident")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("youtext.sessions.live", sessions, SessionStore::liveSessions)
+                .description("Live session tokens")
+                .register(registry);
+        FunctionCounter.builder("youtext.sessions.evictions", sessions, SessionStore::expiredEvictions)
+                .tag("cause", "expired")
+                .register(registry);
+        FunctionCounter.builder("youtext.sessions.evictions", sessions, SessionStore::capacityEvictions)
+                .tag("cause", "capacity")
+                .register(registry);
+        Gauge.builder("youtext.principals.cached", principalCache, PrincipalCache::size)
+                .register(registry);
+
+        Gauge.builder("youtext.search.postings", searchIndex, index -> index.stats().postings())
+                .register(registry);
+        Gauge.builder("youtext.search.heap", searchIndex, index -> index.stats().estimatedBytes())
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("youtext.tier.resident", tier, TranscriptBodyTier::residentBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("youtext.tier.spilled", tier, TranscriptBodyTier::spilledBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("youtext.tier.segments", tier, TranscriptBodyTier::spillSegments)
+                .register(registry);
+        FunctionCounter.builder("youtext.tier.spills", tier, TranscriptBodyTier::spills)
+                .register(registry);
+        FunctionCounter.builder("youtext.tier.promotions", tier, TranscriptBodyTier::promotions)
+                .register(registry);
+        if (tier.compressionStats() != null) {
+            Gauge.builder("youtext.compression.encoded", tier, t -> t.compressionStats().encodedBytes())
+                    .description("Compressed bodies at their uncompressed encoded size")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("youtext.compression.stored", tier, t -> t.compressionStats().compressedBytes())
+                    .description("Heap held by compressed bodies")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("youtext.compression.ratio", tier, t -> t.compressionStats().ratio())
+                    .register(registry);
+            FunctionCounter.builder("youtext.compression.cache.lookups", tier, t -> t.compressionStats().cacheHits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("youtext.compression.cache.lookups", tier, t -> t.compressionStats().cacheMisses())
+                    .tag("result", "miss")
+                    .register(registry);
+        }
+        if (tier.deduplicationStats() != null) {
+            Gauge.builder("youtext.dedup.payloads", tier, t -> t.deduplicationStats().payloads())
+                    .description("Distinct transcript bodies held")
+                    .register(registry);
+            Gauge.builder("youtext.dedup.saved", tier, t -> t.deduplicationStats().savedBytes())
+                    .description("Heap not spent on duplicate transcript bodies")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("youtext.dedup.lookups", tier, t -> t.deduplicationStats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("youtext.dedup.lookups", tier,
+                            t -> t.deduplicationStats().lookups() - t.deduplicationStats().hits())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("youtext.dedup.video.lookups", tier, t -> t.deduplicationStats().videoHits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("youtext.dedup.video.lookups", tier,
+                            t -> t.deduplicationStats().videoLookups() - t.deduplicationStats().videoHits())
+                    .tag("result", "miss")
+                    .register(registry);
+        }
+
+        Gauge.builder("youtext.jobs.active", jobService, jobs -> jobs.stats().activeWorkers())
+                .register(registry);
+        Gauge.builder("youtext.jobs.queued", jobService, jobs -> jobs.stats().queueDepth())
+                .register(registry);
+        FunctionCounter.builder("youtext.jobs", jobService, jobs -> jobs.stats().submitted())
+                .tag("outcome", "submitted")
+                .register(registry);
+        FunctionCounter.builder("youtext.jobs", jobService, jobs -> jobs.stats().rejected())
+                .tag("outcome", "rejected")
+                .register(registry);
+        FunctionCounter.builder("youtext.jobs", jobService, jobs -> jobs.stats().completed())
+                .tag("outcome", "completed")
+                .register(registry);
+        FunctionCounter.builder("youtext.jobs", jobService, jobs -> jobs.stats().failed())
+                .tag("outcome", "failed")
+                .register(registry);
+
+        Gauge.builder("youtext.drafts.open", draftService, TranscriptionDraftService::openDrafts)
+                .register(registry);
+
+        Gauge.builder("youtext.response.cache.entries", responseCache, TranscriptionResponseCache::entries)
+                .register(registry);
+        Gauge.builder("youtext.response.cache.size", responseCache, TranscriptionResponseCache::cachedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("youtext.response.cache.lookups", responseCache, TranscriptionResponseCache::hits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("youtext.response.cache.lookups", responseCache, TranscriptionResponseCache::misses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("youtext.response.cache.evictions", responseCache, TranscriptionResponseCache::evictions)
+                .register(registry);
+
+        Gauge.builder("youtext.ratelimit.buckets", rateLimiter, RateLimiter::buckets)
+                .register(registry);
+        FunctionCounter.builder("youtext.ratelimit.requests", rateLimiter, RateLimiter::allowed)
+                .tag("outcome", "allowed")
+                .register(registry);
+        FunctionCounter.builder("youtext.ratelimit.requests", rateLimiter, RateLimiter::rejected)
+                .tag("outcome", "rejected")
+                .register(registry);
+        FunctionCounter.builder("youtext.ratelimit.evictions", rateLimiter, RateLimiter::evictions)
+                .register(registry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.snapmath.youtext.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public record Session(
+        String userId,
+        String token,
+        Instant expiresAt
+) {
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    public Duration remaining(Instant now) {
+        return isExpired(now) ? Duration.ZERO : Duration.between(now, expiresAt);
+    }
+}
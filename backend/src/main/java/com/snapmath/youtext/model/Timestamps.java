@@ -0,0 +1,56 @@
+package com.snapmath.youtext.model;
+
+public final class Timestamps {
+    // Bounded like parseMillis, so every value this accepts also parses.
+    public static final String PATTERN = "^\\s*\\d{1,9}(:\\d{1,2}){0,2}([.,]\\d{1,3})?\\s*$";
+
+    private Timestamps() {
+    }
+
+    /**
+     * Parses "ss", "mm:ss" or "hh:mm:ss" with an optional fraction of up to
+     * three digits into milliseconds, or returns -1 if the value is malformed.
+     */
+    public static long parseMillis(String timestamp) {
+        if (timestamp == null) {
+            return -1;
+        }
+        String value = timestamp.strip();
+        int fractionStart = Math.max(value.indexOf('.'), value.indexOf(','));
+        long fractionMillis = 0;
+        if (fractionStart >= 0) {
+            String fraction = value.substring(fractionStart + 1);
+            if (fraction.isEmpty() || fraction.length() > 3 || !isDigits(fraction)) {
+                return -1;
+            }
+            fractionMillis = Long.parseLong(fraction);
+            for (int i = fraction.length(); i < 3; i++) {
+                fractionMillis *= 10;
+            }
+            value = value.substring(0, fractionStart);
+        }
+
+        String[] parts = value.split(":", -1);
+        if (parts.length > 3) {
+            return -1;
+        }
+        long seconds = 0;
+        for (String part : parts) {
+            if (part.isEmpty() || part.length() > 9 || !isDigits(part)) {
+                return -1;
+            }
+            seconds = seconds * 60 + Long.parseLong(part);
+        }
+        return seconds * 1000 + fractionMillis;
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package com.snapmath.youtext.model;
+
+/**
+ * The heavy part of a transcription: its lines and the full transcript text.
+ * When the transcript is just the line texts joined by a newline or a space,
+ * or the {@code "[timestamp] text"} lines joined by newlines that clients
+ * send, it is not stored, and is rebuilt from the lines on each call.
+ */
+public final class TranscriptBody implements TranscriptBodyRef {
+
+    private static final char NOT_DERIVED = 0;
+    private static final char[] DERIVABLE_SEPARATORS = {'\n', ' '};
+
+    public static final TranscriptBody EMPTY = new TranscriptBody(TranscriptLines.EMPTY, null, NOT_DERIVED, false);
+
+    private final TranscriptLines lines;
+    private final String transcript;
+    private final char separator;
+    private final boolean timestamped;
+
+    private TranscriptBody(TranscriptLines lines, String transcript, char separator, boolean timestamped) {
+        this.lines = lines;
+        this.transcript = transcript;
+        this.separator = separator;
+        this.timestamped = timestamped;
+    }
+
+    public static TranscriptBody of(String transcript, TranscriptLines lines) {
+        if (transcript != null && !lines.isEmpty()) {
+            for (char separator : DERIVABLE_SEPARATORS) {
+                if (lines.textsJoinTo(transcript, separator)) {
+                    return new TranscriptBody(lines, null, separator, false);
+                }
+            }
+            if (lines.textsJoinTo(transcript, '\n', true)) {
+                return new TranscriptBody(lines, null, '\n', true);
+            }
+        }
+        return new TranscriptBody(lines, transcript, NOT_DERIVED, false);
+    }
+
+    /**
+     * A body whose transcript is the line texts joined by {@code separator}.
+     */
+    public static TranscriptBody joined(TranscriptLines lines, char separator) {
+        return joined(lines, separator, false);
+    }
+
+    /**
+     * A body whose transcript is the line texts joined by {@code separator},
+     * each prefixed with {@code "[timestamp] "} when {@code timestamped}.
+     */
+    public static TranscriptBody joined(TranscriptLines lines, char separator, boolean timestamped) {
+        if (separator == NOT_DERIVED) {
+            throw new IllegalArgumentException("Separator must not be NUL");
+        }
+        return new TranscriptBody(lines, null, separator, timestamped);
+    }
+
+    @Override
+    public TranscriptBody load() {
+        return this;
+    }
+
+    public TranscriptLines lines() {
+        return lines;
+    }
+
+    public String transcript() {
+        return separator == NOT_DERIVED ? transcript : lines.joinTexts(separator, timestamped);
+    }
+
+    public boolean isTranscriptDerived() {
+        return separator != NOT_DERIVED;
+    }
+
+    /**
+     * Whether the derived transcript prefixes each line with its timestamp.
+     */
+    public boolean isTimestamped() {
+        return timestamped;
+    }
+
+    /**
+     * The separator the transcript is derived with, or {@code 0} when it is stored.
+     */
+    public char transcriptSeparator() {
+        return separator;
+    }
+
+    @Override
+    public int lineCount() {
+        return lines.size();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long transcriptBytes = transcript != null ? 2L * transcript.length() : 0;
+        return lines.estimatedBytes() + transcriptBytes;
+    }
+}
@@ -0,0 +1,20 @@
+package com.snapmath.youtext.model;
+
+/**
+ * Where a record's body lives. A {@link TranscriptBody} refers to itself; other
+ * implementations may keep the body off-heap and decode it on each load.
+ */
+public interface TranscriptBodyRef {
+
+    TranscriptBody load();
+
+    /**
+     * Number of transcript lines, known without loading the body.
+     */
+    int lineCount();
+
+    /**
+     * Heap size of the loaded body, known without loading it.
+     */
+    long estimatedBytes();
+}
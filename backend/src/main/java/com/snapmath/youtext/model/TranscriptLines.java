@@ -0,0 +1,254 @@
+package com.snapmath.youtext.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Columnar, read-only list of transcript lines. Every timestamp and text lives
+ * in one shared string, addressed by an offset array, with the parsed start
+ * times alongside; {@link TranscriptLine} objects are only created on access.
+ */
+public final class TranscriptLines extends AbstractList<TranscriptLine> implements RandomAccess {
+
+    public static final TranscriptLines EMPTY = new TranscriptLines("", new int[]{0}, new long[0], true);
+
+    private final String buffer;
+    // Line i has its timestamp at [offsets[2i], offsets[2i+1]) and its text at [offsets[2i+1], offsets[2i+2]).
+    private final int[] offsets;
+    private final long[] startMillis;
+    private final boolean latin1;
+
+    private TranscriptLines(String buffer, int[] offsets, long[] startMillis, boolean latin1) {
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.startMillis = startMillis;
+        this.latin1 = latin1;
+    }
+
+    public static TranscriptLines copyOf(List<TranscriptLine> lines) {
+        if (lines instanceof TranscriptLines compact) {
+            return compact;
+        }
+        if (lines == null || lines.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(lines.size());
+        long previous = 0;
+        for (TranscriptLine line : lines) {
+            // Unparseable stamps inherit the previous start so the times stay sorted.
+            previous = Math.max(previous, Timestamps.parseMillis(line.timestamp()));
+            builder.add(line.timestamp(), line.text(), previous);
+        }
+        return builder.build();
+    }
+
+    public static Builder builder(int expectedLines) {
+        return new Builder(expectedLines);
+    }
+
+    @Override
+    public TranscriptLine get(int index) {
+        return new TranscriptLine(timestamp(index), text(index));
+    }
+
+    @Override
+    public int size() {
+        return startMillis.length;
+    }
+
+    public String timestamp(int index) {
+        return buffer.substring(offsets[2 * index], offsets[2 * index + 1]);
+    }
+
+    public String text(int index) {
+        return buffer.substring(offsets[2 * index + 1], offsets[2 * index + 2]);
+    }
+
+    public int timestampLength(int index) {
+        return offsets[2 * index + 1] - offsets[2 * index];
+    }
+
+    public int textLength(int index) {
+        return offsets[2 * index + 2] - offsets[2 * index + 1];
+    }
+
+    /**
+     * Copies the timestamp of line {@code index} into {@code dst}, like {@link String#getChars}.
+     */
+    public void getTimestampChars(int index, char[] dst, int dstBegin) {
+        buffer.getChars(offsets[2 * index], offsets[2 * index + 1], dst, dstBegin);
+    }
+
+    /**
+     * Copies chars {@code [begin, end)} of the text of line {@code index} into {@code dst}.
+     */
+    public void getTextChars(int index, int begin, int end, char[] dst, int dstBegin) {
+        Objects.checkFromToIndex(begin, end, textLength(index));
+        int start = offsets[2 * index + 1];
+        buffer.getChars(start + begin, start + end, dst, dstBegin);
+    }
+
+    public long startMillis(int index) {
+        return startMillis[index];
+    }
+
+    /**
+     * Lines starting in [fromMillis, toMillis), as a view.
+     */
+    public List<TranscriptLine> between(long fromMillis, long toMillis) {
+        int from = firstAtOrAfter(fromMillis);
+        int to = Math.max(from, firstAtOrAfter(toMillis));
+        return subList(from, to);
+    }
+
+    public int firstAtOrAfter(long millis) {
+        int low = 0;
+        int high = startMillis.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startMillis[mid] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int textLength() {
+        int length = 0;
+        for (int i = 0; i < startMillis.length; i++) {
+            length += offsets[2 * i + 2] - offsets[2 * i + 1];
+        }
+        return length;
+    }
+
+    public String joinTexts(char separator) {
+        return joinTexts(separator, false);
+    }
+
+    /**
+     * The line texts joined by {@code separator}; when {@code timestamped},
+     * each is prefixed with its timestamp as {@code "[timestamp] "}.
+     */
+    public String joinTexts(char separator, boolean timestamped) {
+        int size = size();
+        StringBuilder joined = new StringBuilder(joinedLength(timestamped));
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                joined.append(separator);
+            }
+            if (timestamped) {
+                joined.append('[').append(buffer, offsets[2 * i], offsets[2 * i + 1]).append("] ");
+            }
+            joined.append(buffer, offsets[2 * i + 1], offsets[2 * i + 2]);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Length of {@link #joinTexts(char, boolean)} without building it.
+     */
+    public int joinedLength(boolean timestamped) {
+        int size = size();
+        int separators = Math.max(0, size - 1);
+        if (!timestamped) {
+            return textLength() + separators;
+        }
+        // Timestamps and texts are contiguous in the buffer; each stamp adds "[" and "] ".
+        return offsets[2 * size] - offsets[0] + 3 * size + separators;
+    }
+
+    public boolean textsJoinTo(String value, char separator) {
+        return textsJoinTo(value, separator, false);
+    }
+
+    public boolean textsJoinTo(String value, char separator, boolean timestamped) {
+        int size = size();
+        if (value.length() != joinedLength(timestamped)) {
+            return false;
+        }
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && value.charAt(position++) != separator) {
+                return false;
+            }
+            if (timestamped) {
+                int start = offsets[2 * i];
+                int length = offsets[2 * i + 1] - start;
+                if (value.charAt(position) != '['
+                        || !value.regionMatches(position + 1, buffer, start, length)
+                        || !value.startsWith("] ", position + 1 + length)) {
+                    return false;
+                }
+                position += length + 3;
+            }
+            int start = offsets[2 * i + 1];
+            int length = offsets[2 * i + 2] - start;
+            if (!value.regionMatches(position, buffer, start, length)) {
+                return false;
+            }
+            position += length;
+        }
+        return true;
+    }
+
+    public long estimatedBytes() {
+        // Strings holding only Latin-1 characters are stored with one byte per char.
+        long bufferBytes = latin1 ? buffer.length() : 2L * buffer.length();
+        return bufferBytes + (long) offsets.length * Integer.BYTES + (long) startMillis.length * Long.BYTES;
+    }
+
+    public static final class Builder {
+        private final StringBuilder buffer;
+        private int[] offsets;
+        private long[] startMillis;
+        private int size;
+
+        private Builder(int expectedLines) {
+            int capacity = Math.max(expectedLines, 4);
+            this.buffer = new StringBuilder(capacity * 32);
+            this.offsets = new int[2 * capacity + 1];
+            this.startMillis = new long[capacity];
+        }
+
+        public Builder add(String timestamp, String text, long startMillis) {
+            if (size == this.startMillis.length) {
+                int capacity = size * 2;
+                this.startMillis = Arrays.copyOf(this.startMillis, capacity);
+                this.offsets = Arrays.copyOf(offsets, 2 * capacity + 1);
+            }
+            buffer.append(timestamp);
+            offsets[2 * size + 1] = buffer.length();
+            buffer.append(text);
+            offsets[2 * size + 2] = buffer.length();
+            this.startMillis[size] = startMillis;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long lastStartMillis() {
+            return size > 0 ? startMillis[size - 1] : 0;
+        }
+
+        public TranscriptLines build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            String text = buffer.toString();
+            return new TranscriptLines(
+                    text,
+                    Arrays.copyOf(offsets, 2 * size + 1),
+                    Arrays.copyOf(startMillis, size),
+                    text.chars().allMatch(c -> c < 0x100)
+            );
+        }
+    }
+}
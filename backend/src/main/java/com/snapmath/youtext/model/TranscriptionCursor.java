@@ -0,0 +1,12 @@
+package com.snapmath.youtext.model;
+
+import java.time.Instant;
+
+public record TranscriptionCursor(
+        Instant createdAt,
+        String id
+) {
+    public static TranscriptionCursor of(TranscriptionRecord record) {
+        return new TranscriptionCursor(record.getCreatedAt(), record.getId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.snapmath.youtext.model;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a transcription that is still being uploaded.
+ */
+public record TranscriptionDraft(
+        String id,
+        String userId,
+        String videoTitle,
+        String videoUrl,
+        int lineCount,
+        Instant openedAt,
+        Instant expiresAt
+) {
+}
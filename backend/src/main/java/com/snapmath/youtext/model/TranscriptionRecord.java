@@ -11,8 +11,7 @@ public class TranscriptionRecord {
     private final String videoUrl;
     private final String summary;
     private final List<String> highlights;
-    private final String transcript;
-    private final List<TranscriptLine> lines;
+    private final TranscriptBodyRef body;
     private final Instant createdAt;
 
     private TranscriptionRecord(Builder builder) {
@@ -22,8 +21,7 @@ public class TranscriptionRecord {
         this.videoUrl = builder.videoUrl;
         this.summary = builder.summary;
         this.highlights = List.copyOf(builder.highlights);
-        this.transcript = builder.transcript;
-        this.lines = List.copyOf(builder.lines);
+        this.body = builder.body != null ? builder.body : TranscriptBody.of(builder.transcript, builder.lines);
         this.createdAt = builder.createdAt != null ? builder.createdAt : Instant.now();
     }
 
@@ -52,17 +50,29 @@ public class TranscriptionRecord {
     }
 
     public String getTranscript() {
-        return transcript;
+        return body.load().transcript();
     }
 
-    public List<TranscriptLine> getLines() {
-        return lines;
+    public TranscriptLines getLines() {
+        return body.load().lines();
+    }
+
+    public TranscriptBody getBody() {
+        return body.load();
+    }
+
+    public TranscriptBodyRef getBodyRef() {
+        return body;
     }
 
     public Instant getCreatedAt() {
         return createdAt;
     }
 
+    public List<TranscriptLine> linesBetween(long fromMillis, long toMillis) {
+        return body.load().lines().between(fromMillis, toMillis);
+    }
+
     public Builder toBuilder() {
         return new Builder()
                 .id(id)
@@ -71,8 +81,7 @@ public class TranscriptionRecord {
                 .videoUrl(videoUrl)
                 .summary(summary)
                 .highlights(highlights)
-                .transcript(transcript)
-                .lines(lines)
+                .body(body)
                 .createdAt(createdAt);
     }
 
@@ -88,7 +97,8 @@ public class TranscriptionRecord {
         private String summary;
         private List<String> highlights = List.of();
         private String transcript;
-        private List<TranscriptLine> lines = List.of();
+        private TranscriptLines lines = TranscriptLines.EMPTY;
+        private TranscriptBodyRef body;
         private Instant createdAt;
 
         public Builder id(String id) {
@@ -122,12 +132,19 @@ public class TranscriptionRecord {
         }
 
         public Builder transcript(String transcript) {
+            unpackBody();
             this.transcript = transcript;
             return this;
         }
 
         public Builder lines(List<TranscriptLine> lines) {
-            this.lines = lines != null ? List.copyOf(lines) : List.of();
+            unpackBody();
+            this.lines = TranscriptLines.copyOf(lines);
+            return this;
+        }
+
+        public Builder body(TranscriptBodyRef body) {
+            this.body = body;
             return this;
         }
 
@@ -139,5 +156,14 @@ public class TranscriptionRecord {
         public TranscriptionRecord build() {
             return new TranscriptionRecord(this);
         }
+
+        private void unpackBody() {
+            if (body != null) {
+                TranscriptBody loaded = body.load();
+                transcript = loaded.transcript();
+                lines = loaded.lines();
+                body = null;
+            }
+        }
     }
 }
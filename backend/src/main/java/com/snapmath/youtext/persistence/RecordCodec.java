@@ -0,0 +1,185 @@
+package com.snapmath.youtext.persistence;
+
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary layout shared by the write-ahead log and snapshots. Strings are
+ * length-prefixed UTF-8 (length -1 for null) so values are not limited to the
+ * 64 KB of {@link DataOutput#writeUTF}. Decoding works on a {@link ByteBuffer}
+ * rather than a stream, which keeps recovery free of per-byte stream calls.
+ * A transcript derived from the lines is written as the marker length
+ * {@value #DERIVED_TRANSCRIPT} and its separator, not as text; the separator
+ * value 1 stands for {@code "[timestamp] text"} lines joined by newlines.
+ */
+public final class RecordCodec {
+
+    private static final int DERIVED_TRANSCRIPT = -2;
+    private static final char TIMESTAMPED_LINES = 1;
+
+    private RecordCodec() {
+    }
+
+    public static byte[] encode(TranscriptionRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + record.getLines().size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeRecord(out, record);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static byte[] encodeStrings(String... values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * values.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes only the transcript and lines. A derived transcript is written as
+     * its separator instead of the full text.
+     */
+    public static byte[] encodeBody(TranscriptBody body) {
+        TranscriptLines lines = body.lines();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + lines.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeChar(derivation(body));
+            if (!body.isTranscriptDerived()) {
+                writeString(out, body.transcript());
+            }
+            writeLines(out, lines);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static TranscriptBody decodeBody(ByteBuffer in) {
+        char separator = in.getChar();
+        String transcript = separator == 0 ? readString(in) : null;
+        TranscriptLines lines = readLines(in);
+        return separator == 0 ? TranscriptBody.of(transcript, lines) : derived(lines, separator);
+    }
+
+    public static TranscriptionRecord decode(ByteBuffer in) {
+        TranscriptionRecord.Builder builder = TranscriptionRecord.builder()
+                .id(readString(in))
+                .userId(readString(in))
+                .videoTitle(readString(in))
+                .videoUrl(readString(in))
+                .summary(readString(in));
+        int highlightCount = in.getInt();
+        List<String> highlights = new ArrayList<>(highlightCount);
+        for (int i = 0; i < highlightCount; i++) {
+            highlights.add(readString(in));
+        }
+        builder.highlights(highlights);
+        int transcriptLength = in.getInt();
+        if (transcriptLength == DERIVED_TRANSCRIPT) {
+            char separator = in.getChar();
+            builder.body(derived(readLines(in), separator));
+        } else {
+            builder.transcript(readString(in, transcriptLength)).lines(readLines(in));
+        }
+        return builder
+                .createdAt(Instant.ofEpochSecond(in.getLong(), in.getInt()))
+                .build();
+    }
+
+    public static String readString(ByteBuffer in) {
+        return readString(in, in.getInt());
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        if (length < 0) {
+            return null;
+        }
+        if (!in.hasArray()) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeRecord(DataOutput out, TranscriptionRecord record) throws IOException {
+        writeString(out, record.getId());
+        writeString(out, record.getUserId());
+        writeString(out, record.getVideoTitle());
+        writeString(out, record.getVideoUrl());
+        writeString(out, record.getSummary());
+        out.writeInt(record.getHighlights().size());
+        for (String highlight : record.getHighlights()) {
+            writeString(out, highlight);
+        }
+        TranscriptBody body = record.getBody();
+        if (body.isTranscriptDerived()) {
+            out.writeInt(DERIVED_TRANSCRIPT);
+            out.writeChar(derivation(body));
+        } else {
+            writeString(out, body.transcript());
+        }
+        writeLines(out, body.lines());
+        out.writeLong(record.getCreatedAt().getEpochSecond());
+        out.writeInt(record.getCreatedAt().getNano());
+    }
+
+    private static char derivation(TranscriptBody body) {
+        return body.isTimestamped() ? TIMESTAMPED_LINES : body.transcriptSeparator();
+    }
+
+    private static TranscriptBody derived(TranscriptLines lines, char separator) {
+        return separator == TIMESTAMPED_LINES
+                ? TranscriptBody.joined(lines, '\n', true)
+                : TranscriptBody.joined(lines, separator);
+    }
+
+    private static TranscriptLines readLines(ByteBuffer in) {
+        int lineCount = in.getInt();
+        TranscriptLines.Builder lines = TranscriptLines.builder(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            lines.add(readString(in), readString(in), in.getLong());
+        }
+        return lines.build();
+    }
+
+    private static void writeLines(DataOutput out, TranscriptLines lines) throws IOException {
+        out.writeInt(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            writeString(out, lines.timestamp(i));
+            writeString(out, lines.text(i));
+            out.writeLong(lines.startMillis(i));
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,140 @@
+package com.snapmath.youtext.persistence;
+
+import com.snapmath.youtext.model.TranscriptionRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A full copy of the store, named after the first log segment that has to be
+ * replayed on top of it. Files are written to a temporary name and moved into
+ * place, and carry a trailing CRC so a damaged snapshot fails startup instead
+ * of silently losing records.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x59545331;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final int END_OF_RECORDS = -1;
+
+    private SnapshotFile() {
+    }
+
+    public interface RecordSource {
+        void forEach(Consumer<TranscriptionRecord> action);
+    }
+
+    public static Path write(Path directory, long segment, RecordSource records) throws IOException {
+        Path target = directory.resolve(PREFIX + String.format("%020d", segment) + SUFFIX);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temp);
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc);
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeLong(segment);
+            IOException[] failure = new IOException[1];
+            records.forEach(record -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    byte[] encoded = RecordCodec.encode(record);
+                    out.writeInt(encoded.length);
+                    out.write(encoded);
+                } catch (IOException ex) {
+                    failure[0] = ex;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.writeInt(END_OF_RECORDS);
+            out.flush();
+            new DataOutputStream(file).writeLong(crc.getValue());
+            file.flush();
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    /**
+     * Loads the newest intact snapshot and returns the segment to replay from,
+     * or empty when there is none.
+     */
+    public static Optional<Long> readLatest(Path directory, Consumer<TranscriptionRecord> consumer) throws IOException {
+        Optional<Path> latest;
+        try (var files = Files.list(directory)) {
+            latest = files.filter(SnapshotFile::isSnapshot)
+                    .max(Comparator.comparing(path -> path.getFileName().toString()));
+        }
+        if (latest.isEmpty()) {
+            return Optional.empty();
+        }
+        Path file = latest.get();
+        long size = Files.size(file);
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             CheckedInputStream checked = new CheckedInputStream(raw, crc)) {
+            DataInputStream in = new DataInputStream(checked);
+            if (size < Integer.BYTES * 2 + Long.BYTES * 2 || in.readInt() != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            long segment = in.readLong();
+            byte[] buffer = new byte[4096];
+            for (int length = in.readInt(); length != END_OF_RECORDS; length = in.readInt()) {
+                if (length > buffer.length) {
+                    buffer = new byte[Math.max(length, buffer.length * 2)];
+                }
+                in.readFully(buffer, 0, length);
+                consumer.accept(RecordCodec.decode(ByteBuffer.wrap(buffer, 0, length)));
+            }
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            return Optional.of(segment);
+        }
+    }
+
+    public static void deleteOlderThan(Path directory, long segment) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (isSnapshot(path) && segmentOf(name) < segment) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private static boolean isSnapshot(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long segmentOf(String name) {
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
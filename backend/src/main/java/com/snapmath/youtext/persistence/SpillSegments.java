@@ -0,0 +1,176 @@
+package com.snapmath.youtext.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only, memory-mapped files holding payloads moved off the heap. The
+ * files are a cache of data that lives elsewhere, so nothing is fsynced and the
+ * directory is cleared on open. A segment is deleted once every payload in it
+ * has been released; space inside a segment is never reused.
+ */
+public class SpillSegments implements Closeable {
+
+    private static final String PREFIX = "spill-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    private Segment active;
+    private long nextSegment;
+
+    public SpillSegments(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < 1) {
+            throw new IllegalArgumentException("Spill segment size must be positive");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    public Slot write(byte[] payload) {
+        appendLock.lock();
+        try {
+            if (active == null || active.capacity - active.written < payload.length) {
+                seal(active);
+                active = openSegment(Math.max(segmentBytes, payload.length));
+            }
+            Segment segment = active;
+            int offset = segment.written;
+            segment.buffer.put(offset, payload);
+            segment.written += payload.length;
+            segment.live.addAndGet(payload.length);
+            liveBytes.addAndGet(payload.length);
+            return new Slot(segment, offset, payload.length);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public ByteBuffer read(Slot slot) {
+        return slot.segment.buffer.slice(slot.offset, slot.length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Marks a payload as garbage. Its bytes stay readable through the mapping, so
+     * a reader racing with the release still sees intact data.
+     */
+    public void release(Slot slot) {
+        liveBytes.addAndGet(-slot.length);
+        if (slot.segment.live.addAndGet(-slot.length) == 0 && slot.segment.sealed) {
+            delete(slot.segment);
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long liveBytes() {
+        return liveBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                Files.deleteIfExists(segment.path);
+            }
+            segments.clear();
+            active = null;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Segment openSegment(int capacity) {
+        long number = nextSegment++;
+        Path path = directory.resolve(PREFIX + String.format("%020d", number) + SUFFIX);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed.
+            Segment segment = new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+            segments.put(number, segment);
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void seal(Segment segment) {
+        if (segment == null) {
+            return;
+        }
+        segment.sealed = true;
+        if (segment.live.get() == 0) {
+            delete(segment);
+        }
+    }
+
+    private void delete(Segment segment) {
+        if (segments.remove(segment.number, segment)) {
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    public static final class Slot {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Slot(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public int length() {
+            return length;
+        }
+    }
+
+    private static final class Segment {
+        private final long number;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicLong live = new AtomicLong();
+        private int written;
+        private volatile boolean sealed;
+
+        private Segment(long number, Path path, MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.snapmath.youtext.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log split into numbered segment files. Appends are handed to a
+ * single flusher thread which writes everything queued so far and forces it to
+ * disk once, so concurrent writers share one fsync (group commit).
+ *
+ * <p>Each entry is framed as {@code [int length][int crc32][byte type][payload]};
+ * replay stops at the first truncated or corrupt frame. A batch that fails to
+ * write or sync is therefore cut off again before the next one is appended;
+ * if that fails too, the log refuses all further appends.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int maxBatch;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    // Held across the closed check and the enqueue, so nothing is queued behind CLOSE.
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long segment;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public WriteAheadLog(Path directory, long segment, long validLength, int maxBatch) throws IOException {
+        this.directory = directory;
+        this.maxBatch = maxBatch;
+        this.segment = segment;
+        this.channel = openSegment(segment);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        this.flusher = new Thread(this::runFlusher, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public CompletableFuture<Void> append(byte type, byte[] payload) {
+        return enqueue(new Request(Kind.APPEND, type, payload));
+    }
+
+    /**
+     * Starts a new segment once everything queued before this call is durable,
+     * and returns the new segment number.
+     */
+    public CompletableFuture<Long> rotate() {
+        Request request = new Request(Kind.ROTATE, (byte) 0, null);
+        return enqueue(request).thenApply(ignored -> request.rotatedTo);
+    }
+
+    public long appends() {
+        return appends.sum();
+    }
+
+    public long syncs() {
+        return syncs.sum();
+    }
+
+    public static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", segment) + SEGMENT_SUFFIX);
+    }
+
+    public static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (var files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))
+                    .mapToLong(Long::parseLong)
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    /**
+     * Feeds every intact entry of a segment to {@code consumer} and returns the
+     * length of the valid prefix.
+     */
+    public static long replay(Path segmentFile, EntryConsumer consumer) throws IOException {
+        if (!Files.exists(segmentFile)) {
+            return 0;
+        }
+        long size = Files.size(segmentFile);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(segmentFile), 1 << 16))) {
+            long position = 0;
+            CRC32 crc = new CRC32();
+            while (position + HEADER_BYTES <= size) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 1 || position + HEADER_BYTES + length > size) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                crc.reset();
+                crc.update(body, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(body[0], Arrays.copyOfRange(body, 1, length));
+                position += HEADER_BYTES + length;
+            }
+            return position;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Request request = new Request(Kind.CLOSE, (byte) 0, null);
+        enqueueLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(request);
+        } finally {
+            enqueueLock.unlock();
+        }
+        // The flusher is never interrupted: an interrupt during force() would close the channel.
+        request.done.join();
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Request request) {
+        enqueueLock.lock();
+        try {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log is closed"));
+            }
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failed());
+            }
+            queue.add(request);
+            return request.done;
+        } finally {
+            enqueueLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                continue;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            running = flush(batch);
+            batch.clear();
+        }
+        failPending(new IllegalStateException("Write-ahead log is closed"));
+    }
+
+    private boolean flush(List<Request> batch) {
+        int index = 0;
+        while (index < batch.size()) {
+            int end = index;
+            while (end < batch.size() && batch.get(end).kind == Kind.APPEND) {
+                end++;
+            }
+            if (end > index) {
+                writeAndSync(batch.subList(index, end));
+            }
+            if (end == batch.size()) {
+                break;
+            }
+            Request control = batch.get(end);
+            if (control.kind == Kind.CLOSE) {
+                closeSegment(control);
+                batch.subList(end + 1, batch.size())
+                        .forEach(request -> request.done.completeExceptionally(
+                                new IllegalStateException("Write-ahead log is closed")));
+                return false;
+            }
+            rotateSegment(control);
+            index = end + 1;
+        }
+        return true;
+    }
+
+    private void writeAndSync(List<Request> requests) {
+        if (failure != null) {
+            requests.forEach(request -> request.done.completeExceptionally(failed()));
+            return;
+        }
+        long start = -1;
+        try {
+            start = channel.position();
+            int bytes = 0;
+            for (Request request : requests) {
+                bytes += HEADER_BYTES + 1 + request.payload.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(bytes);
+            CRC32 crc = new CRC32();
+            for (Request request : requests) {
+                crc.reset();
+                crc.update(request.type);
+                crc.update(request.payload);
+                buffer.putInt(1 + request.payload.length);
+                buffer.putInt((int) crc.getValue());
+                buffer.put(request.type);
+                buffer.put(request.payload);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            appends.add(requests.size());
+            syncs.increment();
+            requests.forEach(request -> request.done.complete(null));
+        } catch (IOException | RuntimeException ex) {
+            if (start >= 0) {
+                rollBack(start, ex);
+            }
+            requests.forEach(request -> request.done.completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * Drops whatever part of a failed batch reached the file, so the entries
+     * acknowledged after it are not hidden behind a torn frame on replay.
+     */
+    private void rollBack(long position, Exception cause) {
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException ex) {
+            ex.addSuppressed(cause);
+            failure = ex;
+        }
+    }
+
+    private IllegalStateException failed() {
+        return new IllegalStateException("Write-ahead log failed and accepts no further appends", failure);
+    }
+
+    private void rotateSegment(Request request) {
+        if (failure != null) {
+            request.done.completeExceptionally(failed());
+            return;
+        }
+        try {
+            channel.force(true);
+            channel.close();
+            segment++;
+            channel = openSegment(segment);
+            request.rotatedTo = segment;
+            request.done.complete(null);
+        } catch (IOException ex) {
+            request.done.completeExceptionally(new UncheckedIOException(ex));
+        }
+    }
+
+    private void closeSegment(Request request) {
+        try {
+            channel.force(true);
+            channel.close();
+            request.done.complete(null);
+        } catch (IOException ex) {
+            request.done.completeExceptionally(new UncheckedIOException(ex));
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(
+                segmentPath(directory, number),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE
+        );
+    }
+
+    private void failPending(RuntimeException error) {
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.done.completeExceptionally(error);
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(byte type, byte[] payload) throws IOException;
+    }
+
+    private enum Kind {
+        APPEND,
+        ROTATE,
+        CLOSE
+    }
+
+    private static final class Request {
+        private final Kind kind;
+        private final byte type;
+        private final byte[] payload;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile long rotatedTo;
+
+        private Request(Kind kind, byte type, byte[] payload) {
+            this.kind = kind;
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.snapmath.youtext.search;
+
+import java.time.Instant;
+
+record SearchCandidate(
+        String recordId,
+        Instant createdAt,
+        int fieldMask,
+        int[] lines
+) {
+}
@@ -0,0 +1,16 @@
+package com.snapmath.youtext.search;
+
+public enum SearchField {
+    TITLE,
+    SUMMARY,
+    HIGHLIGHTS,
+    LINES;
+
+    int mask() {
+        return 1 << ordinal();
+    }
+
+    boolean in(int mask) {
+        return (mask & mask()) != 0;
+    }
+}
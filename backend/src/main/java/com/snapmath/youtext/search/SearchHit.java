@@ -0,0 +1,14 @@
+package com.snapmath.youtext.search;
+
+import com.snapmath.youtext.model.TranscriptLine;
+import com.snapmath.youtext.model.TranscriptionRecord;
+
+import java.util.List;
+import java.util.Set;
+
+public record SearchHit(
+        TranscriptionRecord record,
+        Set<SearchField> fields,
+        List<TranscriptLine> lines
+) {
+}
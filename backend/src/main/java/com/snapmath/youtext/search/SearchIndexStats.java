@@ -0,0 +1,11 @@
+package com.snapmath.youtext.search;
+
+public record SearchIndexStats(
+        int users,
+        long records,
+        long terms,
+        long postings,
+        long lineReferences,
+        long estimatedBytes
+) {
+}
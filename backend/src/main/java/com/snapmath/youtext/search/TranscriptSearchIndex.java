@@ -0,0 +1,297 @@
+package com.snapmath.youtext.search;
+
+import com.snapmath.youtext.event.TranscriptionDeletedEvent;
+import com.snapmath.youtext.event.TranscriptionSavedEvent;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-user inverted index from term to the records, fields and line numbers it
+ * occurs in. Only ids, creation times and positions are kept; phrase checks
+ * read the records back from the store, newest candidates first.
+ */
+@Component
+public class TranscriptSearchIndex {
+
+    // Rough per-entry costs used for the memory estimate (object headers, map nodes, references).
+    private static final long TERM_BYTES = 96;
+    private static final long POSTING_BYTES = 80;
+    private static final long LINE_REFERENCE_BYTES = Integer.BYTES;
+
+    private final Map<String, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSaved(TranscriptionSavedEvent event) {
+        TranscriptionRecord record = event.record();
+        Map<String, Posting> terms = UserIndex.collect(record);
+        // The index lock is taken outside the map's compute so a writer waiting on a
+        // long search never blocks while holding the map's bin lock.
+        while (true) {
+            UserIndex index = indexes.computeIfAbsent(event.userId(), key -> new UserIndex());
+            if (index.add(record.getId(), record.getCreatedAt(), terms)) {
+                return;
+            }
+            indexes.remove(event.userId(), index);
+        }
+    }
+
+    @EventListener
+    public void onDeleted(TranscriptionDeletedEvent event) {
+        UserIndex index = indexes.get(event.userId());
+        if (index != null && index.removeAndRetireIfEmpty(event.recordId())) {
+            indexes.remove(event.userId(), index);
+        }
+    }
+
+    /**
+     * Records containing every term, newest first as the store lists them.
+     */
+    List<SearchCandidate> candidates(String userId, List<String> terms) {
+        UserIndex index = indexes.get(userId);
+        if (index == null || terms.isEmpty()) {
+            return List.of();
+        }
+        return index.candidates(new ArrayList<>(new LinkedHashSet<>(terms)));
+    }
+
+    public SearchIndexStats stats() {
+        long records = 0;
+        long terms = 0;
+        long postings = 0;
+        long lineReferences = 0;
+        for (UserIndex index : indexes.values()) {
+            UserIndex.Counts counts = index.counts();
+            records += counts.records();
+            terms += counts.terms();
+            postings += counts.postings();
+            lineReferences += counts.lineReferences();
+        }
+        long estimatedBytes = terms * TERM_BYTES + postings * POSTING_BYTES + lineReferences * LINE_REFERENCE_BYTES;
+        return new SearchIndexStats(indexes.size(), records, terms, postings, lineReferences, estimatedBytes);
+    }
+
+    private static final class UserIndex {
+        private static final Comparator<SearchCandidate> NEWEST_FIRST = Comparator
+                .comparing(SearchCandidate::createdAt, Comparator.reverseOrder())
+                .thenComparing(SearchCandidate::recordId);
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, TermPostings> postings = new HashMap<>();
+        private final Map<String, IndexedRecord> records = new HashMap<>();
+        private long postingCount;
+        private long lineReferenceCount;
+        // Set once the index is empty and about to leave the map; writers then start a new one.
+        private boolean retired;
+
+        static Map<String, Posting> collect(TranscriptionRecord record) {
+            Map<String, Posting> local = new LinkedHashMap<>();
+            collect(local, record.getVideoTitle(), SearchField.TITLE, -1);
+            collect(local, record.getSummary(), SearchField.SUMMARY, -1);
+            for (String highlight : record.getHighlights()) {
+                collect(local, highlight, SearchField.HIGHLIGHTS, -1);
+            }
+            TranscriptLines lines = record.getLines();
+            for (int i = 0; i < lines.size(); i++) {
+                collect(local, lines.text(i), SearchField.LINES, i);
+            }
+            return local;
+        }
+
+        boolean add(String recordId, Instant createdAt, Map<String, Posting> local) {
+            lock.writeLock().lock();
+            try {
+                if (retired) {
+                    return false;
+                }
+                remove(recordId);
+                TermPostings[] terms = new TermPostings[local.size()];
+                int i = 0;
+                for (Map.Entry<String, Posting> entry : local.entrySet()) {
+                    Posting posting = entry.getValue().trim();
+                    TermPostings term = postings.computeIfAbsent(entry.getKey(), TermPostings::new);
+                    term.byRecord.put(recordId, posting);
+                    terms[i++] = term;
+                    postingCount++;
+                    lineReferenceCount += posting.lines.length;
+                }
+                records.put(recordId, new IndexedRecord(createdAt, terms));
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Removes the record and reports whether that left the index empty, in
+         * which case it is retired and must be dropped from the map.
+         */
+        boolean removeAndRetireIfEmpty(String recordId) {
+            lock.writeLock().lock();
+            try {
+                remove(recordId);
+                retired = records.isEmpty();
+                return retired;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String recordId) {
+            lock.writeLock().lock();
+            try {
+                IndexedRecord removed = records.remove(recordId);
+                if (removed == null) {
+                    return;
+                }
+                for (TermPostings term : removed.terms()) {
+                    Posting posting = term.byRecord.remove(recordId);
+                    if (posting != null) {
+                        postingCount--;
+                        lineReferenceCount -= posting.lines.length;
+                    }
+                    if (term.byRecord.isEmpty()) {
+                        postings.remove(term.term);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<SearchCandidate> candidates(List<String> terms) {
+            lock.readLock().lock();
+            try {
+                List<TermPostings> matched = new ArrayList<>(terms.size());
+                for (String term : terms) {
+                    TermPostings termPostings = postings.get(term);
+                    if (termPostings == null) {
+                        return List.of();
+                    }
+                    matched.add(termPostings);
+                }
+                matched.sort(Comparator.comparingInt(term -> term.byRecord.size()));
+
+                TermPostings rarest = matched.get(0);
+                List<SearchCandidate> candidates = new ArrayList<>();
+                for (Map.Entry<String, Posting> entry : rarest.byRecord.entrySet()) {
+                    SearchCandidate candidate = intersect(entry.getKey(), entry.getValue(), matched);
+                    if (candidate != null) {
+                        candidates.add(candidate);
+                    }
+                }
+                candidates.sort(NEWEST_FIRST);
+                return candidates;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Counts counts() {
+            lock.readLock().lock();
+            try {
+                return new Counts(records.size(), postings.size(), postingCount, lineReferenceCount);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private SearchCandidate intersect(String recordId, Posting first, List<TermPostings> matched) {
+            int fieldMask = first.fieldMask;
+            int[] lines = first.lines;
+            for (int i = 1; i < matched.size(); i++) {
+                Posting other = matched.get(i).byRecord.get(recordId);
+                if (other == null) {
+                    return null;
+                }
+                fieldMask &= other.fieldMask;
+                lines = intersectSorted(lines, other.lines);
+            }
+            if (lines.length == 0) {
+                fieldMask &= ~SearchField.LINES.mask();
+            }
+            return fieldMask != 0
+                    ? new SearchCandidate(recordId, records.get(recordId).createdAt(), fieldMask, lines)
+                    : null;
+        }
+
+        private static int[] intersectSorted(int[] left, int[] right) {
+            int[] result = new int[Math.min(left.length, right.length)];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < left.length && j < right.length) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    result[size++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return size == result.length ? result : Arrays.copyOf(result, size);
+        }
+
+        private static void collect(Map<String, Posting> local, String text, SearchField field, int line) {
+            for (String token : Tokenizer.tokenize(text)) {
+                local.computeIfAbsent(token, key -> new Posting()).add(field, line);
+            }
+        }
+
+        private record IndexedRecord(Instant createdAt, TermPostings[] terms) {
+        }
+
+        private record Counts(long records, long terms, long postings, long lineReferences) {
+        }
+    }
+
+    private static final class TermPostings {
+        private final String term;
+        private final Map<String, Posting> byRecord = new HashMap<>(4);
+
+        private TermPostings(String term) {
+            this.term = term;
+        }
+    }
+
+    private static final class Posting {
+        private static final int[] NO_LINES = new int[0];
+
+        private int fieldMask;
+        private int[] lines = NO_LINES;
+        private int lineCount;
+
+        void add(SearchField field, int line) {
+            fieldMask |= field.mask();
+            if (line < 0 || (lineCount > 0 && lines[lineCount - 1] == line)) {
+                return;
+            }
+            if (lineCount == lines.length) {
+                lines = Arrays.copyOf(lines, Math.max(4, lineCount * 2));
+            }
+            lines[lineCount++] = line;
+        }
+
+        Posting trim() {
+            if (lines.length != lineCount) {
+                lines = Arrays.copyOf(lines, lineCount);
+            }
+            return this;
+        }
+    }
+}
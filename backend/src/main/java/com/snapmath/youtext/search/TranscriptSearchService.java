@@ -0,0 +1,80 @@
+package com.snapmath.youtext.search;
+
+import com.snapmath.youtext.model.TranscriptLine;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.service.TranscriptionService;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class TranscriptSearchService {
+
+    private static final int MAX_LINES_PER_HIT = 50;
+
+    private final TranscriptSearchIndex index;
+    private final TranscriptionService transcriptionService;
+
+    public TranscriptSearchService(TranscriptSearchIndex index, TranscriptionService transcriptionService) {
+        this.index = index;
+        this.transcriptionService = transcriptionService;
+    }
+
+    public List<SearchHit> search(String userId, String query, int limit) {
+        List<String> phrase = Tokenizer.tokenize(query);
+        if (phrase.isEmpty()) {
+            return List.of();
+        }
+
+        // Candidates come newest first, so only as many are read back as it takes to fill the page.
+        List<SearchHit> hits = new ArrayList<>();
+        for (SearchCandidate candidate : index.candidates(userId, phrase)) {
+            if (hits.size() >= limit) {
+                break;
+            }
+            // The index may briefly lag the store, so the record is re-read and the phrase checked against it.
+            // Peeking leaves spilled bodies on disk; a search is not a reason to bring them back.
+            Optional<TranscriptionRecord> record = transcriptionService.peek(userId, candidate.recordId());
+            record.map(found -> verify(found, candidate, phrase)).ifPresent(hits::add);
+        }
+        return hits;
+    }
+
+    public SearchIndexStats stats() {
+        return index.stats();
+    }
+
+    private static SearchHit verify(TranscriptionRecord record, SearchCandidate candidate, List<String> phrase) {
+        Set<SearchField> fields = EnumSet.noneOf(SearchField.class);
+        if (SearchField.TITLE.in(candidate.fieldMask()) && Tokenizer.containsPhrase(record.getVideoTitle(), phrase)) {
+            fields.add(SearchField.TITLE);
+        }
+        if (SearchField.SUMMARY.in(candidate.fieldMask()) && Tokenizer.containsPhrase(record.getSummary(), phrase)) {
+            fields.add(SearchField.SUMMARY);
+        }
+        if (SearchField.HIGHLIGHTS.in(candidate.fieldMask())
+                && record.getHighlights().stream().anyMatch(highlight -> Tokenizer.containsPhrase(highlight, phrase))) {
+            fields.add(SearchField.HIGHLIGHTS);
+        }
+
+        List<TranscriptLine> lines = new ArrayList<>();
+        TranscriptLines recordLines = record.getLines();
+        for (int line : candidate.lines()) {
+            if (lines.size() == MAX_LINES_PER_HIT) {
+                break;
+            }
+            if (line < recordLines.size() && Tokenizer.containsPhrase(recordLines.text(line), phrase)) {
+                lines.add(recordLines.get(line));
+            }
+        }
+        if (!lines.isEmpty()) {
+            fields.add(SearchField.LINES);
+        }
+        return fields.isEmpty() ? null : new SearchHit(record, fields, lines);
+    }
+}
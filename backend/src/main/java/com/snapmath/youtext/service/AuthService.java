@@ -1,5 +1,6 @@
 package com.snapmath.youtext.service;
 
+import com.snapmath.youtext.model.Session;
 import com.snapmath.youtext.model.UserProfile;
 
 import java.util.Optional;
@@ -10,7 +11,11 @@ public interface AuthService {
 
     Optional<UserProfile> findById(String userId);
 
-    Optional<String> getActiveToken(String userId);
+    Optional<Session> getActiveSession(String userId);
+
+    default Optional<String> getActiveToken(String userId) {
+        return getActiveSession(userId).map(Session::token);
+    }
 
     void signOut(String userId);
 }
@@ -0,0 +1,14 @@
+package com.snapmath.youtext.service;
+
+public record CompressionStats(
+        boolean dictionaryTrained,
+        long bodies,
+        long encodedBytes,
+        long compressedBytes,
+        long cacheHits,
+        long cacheMisses
+) {
+    public double ratio() {
+        return compressedBytes > 0 ? (double) encodedBytes / compressedBytes : 1;
+    }
+}
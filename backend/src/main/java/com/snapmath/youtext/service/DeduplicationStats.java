@@ -0,0 +1,14 @@
+package com.snapmath.youtext.service;
+
+public record DeduplicationStats(
+        long payloads,
+        long savedBytes,
+        long lookups,
+        long hits,
+        long videoLookups,
+        long videoHits
+) {
+    public double hitRate() {
+        return lookups > 0 ? (double) hits / lookups : 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.snapmath.youtext.service;
+
+public record DraftResult<T>(Outcome outcome, T value) {
+
+    public enum Outcome {
+        APPLIED,
+        NOT_FOUND,
+        OFFSET_MISMATCH,
+        OUT_OF_ORDER,
+        LINE_LIMIT,
+        EMPTY
+    }
+
+    static <T> DraftResult<T> applied(T value) {
+        return new DraftResult<>(Outcome.APPLIED, value);
+    }
+
+    static <T> DraftResult<T> rejected(Outcome outcome) {
+        return new DraftResult<>(outcome, null);
+    }
+}
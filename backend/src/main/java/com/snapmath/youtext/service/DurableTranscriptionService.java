@@ -0,0 +1,246 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.StorageProperties;
+import com.snapmath.youtext.config.SyncProperties;
+import com.snapmath.youtext.model.TranscriptionCursor;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.persistence.RecordCodec;
+import com.snapmath.youtext.persistence.SnapshotFile;
+import com.snapmath.youtext.persistence.WriteAheadLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the working set in an {@link InMemoryTranscriptionService} and makes
+ * every change durable in a local write-ahead log before acknowledging it.
+ * Periodic snapshots bound recovery time: startup loads the newest snapshot and
+ * replays only the log segments written after it.
+ * <p>
+ * Recovery runs once every singleton exists rather than in the constructor:
+ * event listeners are only registered at that point, and the search index and
+ * metrics need the save events replay publishes. The web server starts later
+ * still, so no request sees a partly recovered store.
+ */
+@Service
+@ConditionalOnProperty(name = "youtext.storage.mode", havingValue = "durable")
+public class DurableTranscriptionService implements TranscriptionService, SmartInitializingSingleton, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DurableTranscriptionService.class);
+
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+
+    private final Path directory;
+    private final int maxCommitBatch;
+    private final InMemoryTranscriptionService memory;
+    // Opened by recover(), positioned after the last entry replayed.
+    private volatile WriteAheadLog wal;
+    // Writers hold the read side across log append and in-memory apply, so a snapshot that
+    // rotates under the write side sees every change logged in the segments it replaces.
+    private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+
+    public DurableTranscriptionService(
+            StorageProperties properties,
+            ApplicationEventPublisher events,
+            TranscriptBodyTier tier,
+            SyncProperties syncProperties
+    ) throws IOException {
+        this.directory = properties.directory();
+        this.maxCommitBatch = properties.maxCommitBatch();
+        this.memory = new InMemoryTranscriptionService(events, tier, syncProperties);
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            recover();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not recover transcriptions from " + directory.toAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Loads the newest snapshot, replays the log after it and opens the log
+     * for appends. Changes are refused until this has run.
+     */
+    public void recover() throws IOException {
+        if (wal != null) {
+            throw new IllegalStateException("Transcriptions already recovered");
+        }
+        long started = System.nanoTime();
+        long firstSegment = SnapshotFile.readLatest(directory, record -> memory.save(record.getUserId(), record))
+                .orElse(0L);
+        long segment = firstSegment;
+        long validLength = 0;
+        long replayed = 0;
+        for (long candidate : WriteAheadLog.listSegments(directory)) {
+            if (candidate < firstSegment) {
+                continue;
+            }
+            long[] entries = new long[1];
+            validLength = WriteAheadLog.replay(WriteAheadLog.segmentPath(directory, candidate), (type, payload) -> {
+                apply(type, payload);
+                entries[0]++;
+            });
+            replayed += entries[0];
+            segment = candidate;
+        }
+        log.info("Recovered transcriptions from {} ({} log entries replayed) in {} ms",
+                directory.toAbsolutePath(), replayed, (System.nanoTime() - started) / 1_000_000);
+
+        this.wal = new WriteAheadLog(directory, segment, validLength, maxCommitBatch);
+    }
+
+    @Override
+    public TranscriptionRecord save(String userId, TranscriptionRecord record) {
+        return save(userId, record, false);
+    }
+
+    /**
+     * The log does not record that a job produced the record, so records
+     * replayed after a restart are not offered to later jobs.
+     */
+    @Override
+    public TranscriptionRecord saveTranscribed(String userId, TranscriptionRecord record) {
+        return save(userId, record, true);
+    }
+
+    private TranscriptionRecord save(String userId, TranscriptionRecord record, boolean transcribed) {
+        TranscriptionRecord toPersist = userId.equals(record.getUserId())
+                ? record
+                : record.toBuilder().userId(userId).build();
+        byte[] entry = RecordCodec.encode(toPersist);
+        rotation.readLock().lock();
+        try {
+            append(SAVE, entry);
+            return transcribed ? memory.saveTranscribed(userId, toPersist) : memory.save(userId, toPersist);
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<TranscriptionRecord> findAll(String userId) {
+        return memory.findAll(userId);
+    }
+
+    @Override
+    public List<TranscriptionRecord> findPage(String userId, TranscriptionCursor after, int limit) {
+        return memory.findPage(userId, after, limit);
+    }
+
+    @Override
+    public Optional<TranscriptionRecord> findOne(String userId, String id) {
+        return memory.findOne(userId, id);
+    }
+
+    @Override
+    public Optional<TranscriptionRecord> peek(String userId, String id) {
+        return memory.peek(userId, id);
+    }
+
+    @Override
+    public TranscriptionChanges changesSince(String userId, long since) {
+        return memory.changesSince(userId, since);
+    }
+
+    @Override
+    public Optional<TranscriptionRecord> findTranscribed(String videoUrl) {
+        return memory.findTranscribed(videoUrl);
+    }
+
+    @Override
+    public TranscriptionStoreStats stats() {
+        return memory.stats();
+    }
+
+    @Override
+    public void delete(String userId, String id) {
+        if (memory.peek(userId, id).isEmpty()) {
+            return;
+        }
+        byte[] entry = RecordCodec.encodeStrings(userId, id);
+        rotation.readLock().lock();
+        try {
+            append(DELETE, entry);
+            memory.delete(userId, id);
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${youtext.storage.snapshot-interval:PT10M}",
+            fixedDelayString = "${youtext.storage.snapshot-interval:PT10M}"
+    )
+    public void snapshot() throws IOException {
+        long segment;
+        rotation.writeLock().lock();
+        try {
+            segment = wal().rotate().join();
+        } finally {
+            rotation.writeLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        SnapshotFile.write(directory, segment, memory::forEach);
+        SnapshotFile.deleteOlderThan(directory, segment);
+        for (long old : WriteAheadLog.listSegments(directory)) {
+            if (old < segment) {
+                Files.deleteIfExists(WriteAheadLog.segmentPath(directory, old));
+            }
+        }
+        log.debug("Wrote snapshot for segment {} in {} ms", segment, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public void close() throws IOException {
+        WriteAheadLog opened = wal;
+        if (opened != null) {
+            opened.close();
+        }
+    }
+
+    private WriteAheadLog wal() {
+        WriteAheadLog opened = wal;
+        if (opened == null) {
+            throw new IllegalStateException("Transcriptions have not been recovered yet");
+        }
+        return opened;
+    }
+
+    private void append(byte type, byte[] payload) {
+        try {
+            wal().append(type, payload).join();
+        } catch (CompletionException ex) {
+            throw new IllegalStateException("Could not persist transcription change", ex.getCause());
+        }
+    }
+
+    private void apply(byte type, byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        if (type == SAVE) {
+            TranscriptionRecord record = RecordCodec.decode(in);
+            memory.save(record.getUserId(), record);
+        } else if (type == DELETE) {
+            memory.delete(RecordCodec.readString(in), RecordCodec.readString(in));
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.snapmath.youtext.service;
 
+import com.snapmath.youtext.config.SessionProperties;
+import com.snapmath.youtext.event.SessionEndedEvent;
+import com.snapmath.youtext.model.Session;
 import com.snapmath.youtext.model.UserProfile;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -12,22 +20,22 @@ import java.util.concurrent.ConcurrentHashMap;
 public class InMemoryAuthService implements AuthService {
 
     private final Map<String, UserProfile> usersById = new ConcurrentHashMap<>();
-    private final Map<String, String> tokensByUser = new ConcurrentHashMap<>();
+    private final Map<String, String> userIdsByEmail = new ConcurrentHashMap<>();
+    private final SessionStore sessions;
+
+    public InMemoryAuthService(SessionProperties properties, ApplicationEventPublisher events) {
+        this.sessions = new SessionStore(
+                properties.ttl(),
+                properties.maxSessions(),
+                session -> events.publishEvent(new SessionEndedEvent(session.userId()))
+        );
+    }
 
     @Override
     public UserProfile signInWithGoogle(String credential, String email, String displayName) {
         // Stub: we do not validate the credential yet.
-        UserProfile profile = usersById.values().stream()
-                .filter(user -> user.getEmail().equalsIgnoreCase(email))
-                .findFirst()
-                .map(existing -> existing.toBuilder().displayName(displayName).build())
-                .orElseGet(() -> UserProfile.builder()
-                        .email(email)
-                        .displayName(displayName)
-                        .build());
-
-        usersById.put(profile.getId(), profile);
-        tokensByUser.put(profile.getId(), generateDemoToken(credential, profile.getId()));
+        UserProfile profile = upsertByEmail(email, displayName);
+        sessions.open(profile.getId(), generateDemoToken(credential, profile.getId()), Instant.now());
         return profile;
     }
 
@@ -37,13 +45,57 @@ public class InMemoryAuthService implements AuthService {
     }
 
     @Override
-    public Optional<String> getActiveToken(String userId) {
-        return Optional.ofNullable(tokensByUser.get(userId));
+    public Optional<Session> getActiveSession(String userId) {
+        return sessions.find(userId, Instant.now());
     }
 
     @Override
     public void signOut(String userId) {
-        tokensByUser.remove(userId);
+        sessions.close(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${youtext.sessions.eviction-interval:PT30S}")
+    public void evictExpiredSessions() {
+        sessions.evictExpired(Instant.now(), Integer.MAX_VALUE);
+    }
+
+    public SessionStore sessions() {
+        return sessions;
+    }
+
+    private UserProfile upsertByEmail(String email, String displayName) {
+        String normalizedEmail = normalizeEmail(email);
+        String userId = userIdsByEmail.get(normalizedEmail);
+        if (userId == null) {
+            // Publish the profile before claiming the email so the index never points at a missing user.
+            UserProfile candidate = UserProfile.builder()
+                    .email(email)
+                    .displayName(displayName)
+                    .build();
+            usersById.put(candidate.getId(), candidate);
+
+            String winner = userIdsByEmail.putIfAbsent(normalizedEmail, candidate.getId());
+            if (winner == null) {
+                return candidate;
+            }
+            usersById.remove(candidate.getId(), candidate);
+            userId = winner;
+        }
+
+        while (true) {
+            UserProfile existing = usersById.get(userId);
+            if (Objects.equals(existing.getDisplayName(), displayName)) {
+                return existing;
+            }
+            UserProfile updated = existing.toBuilder().displayName(displayName).build();
+            if (usersById.replace(userId, existing, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
     }
 
     private String generateDemoToken(String seed, String userId) {
@@ -1,50 +1,237 @@
 package com.snapmath.youtext.service;
 
+import com.snapmath.youtext.config.SyncProperties;
+import com.snapmath.youtext.event.TranscriptionDeletedEvent;
+import com.snapmath.youtext.event.TranscriptionSavedEvent;
+import com.snapmath.youtext.model.TranscriptionCursor;
 import com.snapmath.youtext.model.TranscriptionRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 @Service
+@ConditionalOnProperty(name = "youtext.storage.mode", havingValue = "memory", matchIfMissing = true)
 public class InMemoryTranscriptionService implements TranscriptionService {
 
-    private final Map<String, List<TranscriptionRecord>> storage = new ConcurrentHashMap<>();
+    // Record object, index entries and highlight list; strings are counted separately.
+    private static final long RECORD_OVERHEAD_BYTES = 256;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    // Writes for a user are serialized by the store's own lock rather than the map's compute, whose bin
+    // lock is a monitor that would pin a virtual thread; reads go straight to the store.
+    private final Map<String, UserRecordStore> storage = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher events;
+    private final TranscriptBodyTier tier;
+    private final int changeLogSize;
+    // Seeded from the clock so that versions handed out before a restart stay below later ones.
+    private final AtomicLong versions = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+    // A user who has not saved since startup has no changes after it.
+    private final long startVersion = versions.get();
+    // Emptied stores keep answering for their change log, so clients learn about the final deletes,
+    // and the user's next store continues the log. One empty store is kept per such user.
+    private final Map<String, UserRecordStore> retired = new ConcurrentHashMap<>();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder estimatedBytes = new LongAdder();
+
+    public InMemoryTranscriptionService(ApplicationEventPublisher events, TranscriptBodyTier tier,
+                                        SyncProperties syncProperties) {
+        this.events = events;
+        this.tier = tier;
+        this.changeLogSize = syncProperties.changeLogSize();
+    }
 
     @Override
     public TranscriptionRecord save(String userId, TranscriptionRecord record) {
-        storage.computeIfAbsent(userId, key -> Collections.synchronizedList(new ArrayList<>()));
+        return save(userId, record, false);
+    }
 
-        List<TranscriptionRecord> userRecords = storage.get(userId);
-        userRecords.removeIf(existing -> existing.getId().equals(record.getId()));
+    @Override
+    public TranscriptionRecord saveTranscribed(String userId, TranscriptionRecord record) {
+        return save(userId, record, true);
+    }
+
+    private TranscriptionRecord save(String userId, TranscriptionRecord record, boolean transcribed) {
+        TranscriptionRecord toPersist = tier.admit(userId.equals(record.getUserId())
+                ? record
+                : record.toBuilder().userId(userId).build(), transcribed);
 
-        TranscriptionRecord toPersist = record.toBuilder().userId(userId).build();
-        userRecords.add(0, toPersist);
+        TranscriptionRecord replaced = put(userId, toPersist);
+        account(toPersist, 1);
+        if (replaced != null) {
+            account(replaced, -1);
+            tier.release(replaced);
+        }
+        events.publishEvent(new TranscriptionSavedEvent(userId, toPersist));
         return toPersist;
     }
 
     @Override
-    public List<TranscriptionRecord> findAll(String userId) {
-        return storage.getOrDefault(userId, List.of());
+    public Collection<TranscriptionRecord> findAll(String userId) {
+        UserRecordStore store = storage.get(userId);
+        return store != null ? store.newestFirst() : List.of();
+    }
+
+    @Override
+    public List<TranscriptionRecord> findPage(String userId, TranscriptionCursor after, int limit) {
+        UserRecordStore store = storage.get(userId);
+        return store != null ? store.page(after, limit) : List.of();
     }
 
     @Override
     public Optional<TranscriptionRecord> findOne(String userId, String id) {
-        return storage.getOrDefault(userId, List.of())
-                .stream()
-                .filter(record -> record.getId().equals(id))
-                .findFirst();
+        UserRecordStore store = storage.get(userId);
+        return store != null ? Optional.ofNullable(store.get(id)).map(tier::touch) : Optional.empty();
+    }
+
+    @Override
+    public Optional<TranscriptionRecord> peek(String userId, String id) {
+        UserRecordStore store = storage.get(userId);
+        return store != null ? Optional.ofNullable(store.get(id)) : Optional.empty();
     }
 
     @Override
     public void delete(String userId, String id) {
-        storage.computeIfPresent(userId, (key, records) -> {
-            records.removeIf(record -> record.getId().equals(id));
-            return records.isEmpty() ? null : records;
-        });
+        TranscriptionRecord removed = remove(userId, id);
+        if (removed != null) {
+            account(removed, -1);
+            tier.release(removed);
+            events.publishEvent(new TranscriptionDeletedEvent(userId, id));
+        }
+    }
+
+    @Override
+    public TranscriptionChanges changesSince(String userId, long since) {
+        UserRecordStore store = storage.get(userId);
+        if (store == null) {
+            store = retired.get(userId);
+        }
+        if (store == null) {
+            // A new store is published before its predecessor is dropped from the retired map.
+            store = storage.get(userId);
+        }
+        if (store == null) {
+            long current = versions.get();
+            return since >= startVersion && since <= current
+                    ? new TranscriptionChanges(since, false, List.of(), List.of())
+                    : TranscriptionChanges.resync(current);
+        }
+        store.writeLock.lock();
+        try {
+            List<UserRecordStore.Change> changes = store.changesSince(since);
+            if (changes == null) {
+                return TranscriptionChanges.resync(store.version());
+            }
+            List<TranscriptionRecord> upserts = new ArrayList<>();
+            List<String> deletedIds = new ArrayList<>();
+            for (UserRecordStore.Change change : changes) {
+                if (change.deleted()) {
+                    deletedIds.add(change.recordId());
+                } else {
+                    upserts.add(store.get(change.recordId()));
+                }
+            }
+            return new TranscriptionChanges(store.version(), false, upserts, deletedIds);
+        } finally {
+            store.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<TranscriptionRecord> findTranscribed(String videoUrl) {
+        return tier.findByVideoUrl(videoUrl);
+    }
+
+    @Override
+    public TranscriptionStoreStats stats() {
+        return new TranscriptionStoreStats(storage.size(), records.sum(), lines.sum(), estimatedBytes.sum());
+    }
+
+    private void account(TranscriptionRecord record, int sign) {
+        records.add(sign);
+        lines.add(sign * record.getBodyRef().lineCount());
+        estimatedBytes.add(sign * estimatedBytes(record));
+    }
+
+    private static long estimatedBytes(TranscriptionRecord record) {
+        long bytes = RECORD_OVERHEAD_BYTES + record.getBodyRef().estimatedBytes()
+                + stringBytes(record.getId())
+                + stringBytes(record.getUserId())
+                + stringBytes(record.getVideoTitle())
+                + stringBytes(record.getVideoUrl())
+                + stringBytes(record.getSummary());
+        for (String highlight : record.getHighlights()) {
+            bytes += stringBytes(highlight);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value != null ? STRING_OVERHEAD_BYTES + 2L * value.length() : 0;
+    }
+
+    private TranscriptionRecord put(String userId, TranscriptionRecord record) {
+        while (true) {
+            UserRecordStore store = storage.computeIfAbsent(userId, key -> {
+                UserRecordStore previous = retired.get(key);
+                return previous != null
+                        ? new UserRecordStore(previous)
+                        : new UserRecordStore(startVersion, changeLogSize);
+            });
+            store.writeLock.lock();
+            try {
+                if (!store.retired) {
+                    if (store.predecessor != null) {
+                        retired.remove(userId, store.predecessor);
+                        store.predecessor = null;
+                    }
+                    store.recordChange(versions.incrementAndGet(), record.getId(), false);
+                    return store.put(record);
+                }
+            } finally {
+                store.writeLock.unlock();
+            }
+            storage.remove(userId, store);
+        }
+    }
+
+    private TranscriptionRecord remove(String userId, String id) {
+        UserRecordStore store;
+        while ((store = storage.get(userId)) != null) {
+            store.writeLock.lock();
+            try {
+                if (!store.retired) {
+                    TranscriptionRecord removed = store.remove(id);
+                    if (removed != null) {
+                        store.recordChange(versions.incrementAndGet(), id, true);
+                    }
+                    store.retired = store.isEmpty();
+                    if (store.retired) {
+                        retired.put(userId, store);
+                        storage.remove(userId, store);
+                    }
+                    return removed;
+                }
+            } finally {
+                store.writeLock.unlock();
+            }
+            storage.remove(userId, store);
+        }
+        return null;
+    }
+
+    void forEach(Consumer<TranscriptionRecord> action) {
+        storage.values().forEach(store -> store.newestFirst().forEach(action));
     }
 }
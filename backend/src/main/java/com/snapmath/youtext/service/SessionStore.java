@@ -0,0 +1,148 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.model.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Holds at most one session per user. Every session gets the same TTL, so the
+ * insertion-ordered queue is also ordered by expiry and eviction only ever
+ * looks at its head.
+ */
+public class SessionStore {
+
+    private static final int EVICTIONS_PER_OPEN = 8;
+
+    private final Duration ttl;
+    private final int capacity;
+    private final Consumer<Session> onEnded;
+
+    private final Map<String, Session> sessionsByUser = new ConcurrentHashMap<>();
+    private final Queue<Session> expiryQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder expiredEvictions = new LongAdder();
+    private final LongAdder capacityEvictions = new LongAdder();
+
+    public SessionStore(Duration ttl, int capacity) {
+        this(ttl, capacity, session -> {
+        });
+    }
+
+    public SessionStore(Duration ttl, int capacity, Consumer<Session> onEnded) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Session TTL must be positive");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Session capacity must be at least 1");
+        }
+        this.ttl = ttl;
+        this.capacity = capacity;
+        this.onEnded = onEnded;
+    }
+
+    public Session open(String userId, String token, Instant now) {
+        Session session = new Session(userId, token, now.plus(ttl));
+        sessionsByUser.put(userId, session);
+        expiryQueue.add(session);
+        queued.incrementAndGet();
+
+        evictExpired(now, EVICTIONS_PER_OPEN);
+        // Replaced and closed sessions stay queued until they reach the head, so bound the queue too.
+        if (sessionsByUser.size() > capacity || queued.get() > 2 * capacity) {
+            evictOverCapacity();
+        }
+        return session;
+    }
+
+    public Optional<Session> find(String userId, Instant now) {
+        Session session = sessionsByUser.get(userId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (session.isExpired(now)) {
+            if (sessionsByUser.remove(userId, session)) {
+                expiredEvictions.increment();
+                onEnded.accept(session);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    public boolean close(String userId) {
+        Session removed = sessionsByUser.remove(userId);
+        if (removed == null) {
+            return false;
+        }
+        onEnded.accept(removed);
+        return true;
+    }
+
+    public int evictExpired(Instant now, int budget) {
+        if (!evictionLock.tryLock()) {
+            return 0;
+        }
+        int evicted = 0;
+        try {
+            for (int i = 0; i < budget; i++) {
+                Session head = expiryQueue.peek();
+                if (head == null || !head.isExpired(now)) {
+                    break;
+                }
+                expiryQueue.poll();
+                queued.decrementAndGet();
+                if (sessionsByUser.remove(head.userId(), head)) {
+                    expiredEvictions.increment();
+                    onEnded.accept(head);
+                    evicted++;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return evicted;
+    }
+
+    public int liveSessions() {
+        return sessionsByUser.size();
+    }
+
+    public long expiredEvictions() {
+        return expiredEvictions.sum();
+    }
+
+    public long capacityEvictions() {
+        return capacityEvictions.sum();
+    }
+
+    private void evictOverCapacity() {
+        evictionLock.lock();
+        try {
+            while (sessionsByUser.size() > capacity || queued.get() > 2 * capacity) {
+                Session head = expiryQueue.poll();
+                if (head == null) {
+                    break;
+                }
+                queued.decrementAndGet();
+                if (sessionsByUser.remove(head.userId(), head)) {
+                    capacityEvictions.increment();
+                    onEnded.accept(head);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.StorageProperties;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptBodyRef;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.persistence.RecordCodec;
+import com.snapmath.youtext.persistence.SpillSegments;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps transcript bodies on the heap up to a byte budget and spills the rest to
+ * memory-mapped {@link SpillSegments}, or, when compression is configured
+ * instead, keeps every body deflated on the heap through a
+ * {@link TranscriptCompressor}. Record metadata never moves. A CLOCK hand
+ * walks resident bodies in admission order and gives bodies read through
+ * {@link #touch} since its last pass a second chance. Spilled bodies are decoded
+ * on every load and made resident again when touched.
+ *
+ * <p>A body is written to disk at most once; spilling it again after it was
+ * brought back only drops the heap copy.
+ *
+ * <p>With deduplication on, identical bodies saved by different records or
+ * users are placed once and shared through a {@link TranscriptContentStore}.
+ */
+@Component
+public class TranscriptBodyTier implements AutoCloseable {
+
+    private final long heapBudget;
+    private final SpillSegments segments;
+    private final TranscriptCompressor compressor;
+    private final TranscriptContentStore contents;
+
+    private final Queue<TieredBody> clock = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong residentBytes = new AtomicLong();
+    private final AtomicInteger residentBodies = new AtomicInteger();
+    private final LongAdder spills = new LongAdder();
+    private final LongAdder promotions = new LongAdder();
+
+    public TranscriptBodyTier(StorageProperties properties) throws IOException {
+        StorageProperties.Tiering tiering = properties.tiering();
+        this.heapBudget = tiering.heapBudget().toBytes();
+        this.segments = tiering.enabled()
+                ? new SpillSegments(tiering.directory(), Math.toIntExact(tiering.segmentSize().toBytes()))
+                : null;
+        if (tiering.enabled() && properties.compression().enabled()) {
+            throw new IllegalStateException(
+                    "youtext.storage.compression and youtext.storage.tiering are alternatives; enable only one");
+        }
+        this.compressor = properties.compression().enabled()
+                ? new TranscriptCompressor(properties.compression())
+                : null;
+        this.contents = properties.deduplicate() ? new TranscriptContentStore() : null;
+    }
+
+    public boolean enabled() {
+        return segments != null;
+    }
+
+    /**
+     * Returns the record with its body under this tier's management. A record
+     * that already carries one of this tier's bodies shares it. Only records
+     * a job {@code transcribed} are indexed by video.
+     */
+    TranscriptionRecord admit(TranscriptionRecord record, boolean transcribed) {
+        if (contents == null) {
+            return place(record);
+        }
+        TranscriptionRecord shared = contents.share(record, transcribed);
+        if (shared != null) {
+            return shared;
+        }
+        TranscriptionRecord placed = place(record);
+        contents.register(record, placed, transcribed);
+        return placed;
+    }
+
+    /**
+     * A record already holding the transcript of the video, as a template
+     * without id, owner or creation time.
+     */
+    Optional<TranscriptionRecord> findByVideoUrl(String videoUrl) {
+        return contents != null ? contents.findByVideoUrl(videoUrl) : Optional.empty();
+    }
+
+    private TranscriptionRecord place(TranscriptionRecord record) {
+        if (compressor != null) {
+            return record.toBuilder().body(compressor.compress(record.getBodyRef())).build();
+        }
+        if (segments == null) {
+            return record;
+        }
+        if (record.getBodyRef() instanceof TieredBody existing && existing.owner == this && existing.retain()) {
+            return record;
+        }
+        TieredBody tiered = new TieredBody(this, record.getBody());
+        charge(tiered);
+        clock.add(tiered);
+        evictOverBudget();
+        return record.toBuilder().body(tiered).build();
+    }
+
+    /**
+     * Records a read of the record's body and brings it back onto the heap if it
+     * was spilled.
+     */
+    TranscriptionRecord touch(TranscriptionRecord record) {
+        if (!(record.getBodyRef() instanceof TieredBody tiered) || tiered.owner != this) {
+            return record;
+        }
+        tiered.referenced = true;
+        if (tiered.resident.get() != null || tiered.holders.get() == 0) {
+            return record;
+        }
+        TranscriptBody body = tiered.load();
+        if (tiered.resident.compareAndSet(null, body)) {
+            charge(tiered);
+            promotions.increment();
+            clock.add(tiered);
+            evictOverBudget();
+        }
+        return record;
+    }
+
+    /**
+     * Called once for every admitted record that leaves the store.
+     */
+    void release(TranscriptionRecord record) {
+        if (contents != null && !contents.release(record)) {
+            return;
+        }
+        if (compressor != null) {
+            compressor.release(record.getBodyRef());
+            return;
+        }
+        if (!(record.getBodyRef() instanceof TieredBody tiered) || tiered.owner != this) {
+            return;
+        }
+        if (tiered.holders.decrementAndGet() > 0) {
+            return;
+        }
+        // The heap copy is left in place for readers still holding the record; only the accounting changes.
+        discharge(tiered);
+        if (tiered.slot != null) {
+            freeSlot(tiered);
+        }
+    }
+
+    public long heapBudget() {
+        return heapBudget;
+    }
+
+    public long residentBytes() {
+        return residentBytes.get();
+    }
+
+    public int residentBodies() {
+        return residentBodies.get();
+    }
+
+    public long spilledBytes() {
+        return segments != null ? segments.liveBytes() : 0;
+    }
+
+    public int spillSegments() {
+        return segments != null ? segments.segmentCount() : 0;
+    }
+
+    public long spills() {
+        return spills.sum();
+    }
+
+    public long promotions() {
+        return promotions.sum();
+    }
+
+    /**
+     * Compression counters, or null when bodies are not compressed.
+     */
+    public CompressionStats compressionStats() {
+        return compressor != null ? compressor.stats() : null;
+    }
+
+    /**
+     * Deduplication counters, or null when bodies are not deduplicated.
+     */
+    public DeduplicationStats deduplicationStats() {
+        return contents != null ? contents.stats() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segments != null) {
+            segments.close();
+        }
+    }
+
+    private void evictOverBudget() {
+        if (residentBytes.get() <= heapBudget || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Every body gets at most one second chance per pass, so two passes always suffice.
+            int steps = 2 * residentBodies.get() + 1;
+            while (residentBytes.get() > heapBudget && steps-- > 0) {
+                TieredBody hand = clock.poll();
+                if (hand == null) {
+                    break;
+                }
+                if (hand.holders.get() == 0) {
+                    discharge(hand);
+                } else if (hand.referenced) {
+                    hand.referenced = false;
+                    clock.add(hand);
+                } else {
+                    spill(hand);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void spill(TieredBody tiered) {
+        TranscriptBody body = tiered.resident.get();
+        if (body == null) {
+            return;
+        }
+        if (tiered.slot == null) {
+            tiered.slot = segments.write(RecordCodec.encodeBody(body));
+            if (tiered.holders.get() == 0) {
+                freeSlot(tiered);
+                discharge(tiered);
+                return;
+            }
+        }
+        if (tiered.resident.compareAndSet(body, null)) {
+            discharge(tiered);
+            spills.increment();
+        }
+    }
+
+    private void charge(TieredBody tiered) {
+        if (tiered.charged.compareAndSet(false, true)) {
+            residentBytes.addAndGet(tiered.bytes);
+            residentBodies.incrementAndGet();
+        }
+    }
+
+    private void discharge(TieredBody tiered) {
+        if (tiered.charged.compareAndSet(true, false)) {
+            residentBytes.addAndGet(-tiered.bytes);
+            residentBodies.decrementAndGet();
+        }
+    }
+
+    private void freeSlot(TieredBody tiered) {
+        if (tiered.slotFreed.compareAndSet(false, true)) {
+            segments.release(tiered.slot);
+        }
+    }
+
+    private static final class TieredBody implements TranscriptBodyRef {
+        private final TranscriptBodyTier owner;
+        private final long bytes;
+        private final int lineCount;
+        private final AtomicReference<TranscriptBody> resident;
+        private final AtomicInteger holders = new AtomicInteger(1);
+        private final AtomicBoolean charged = new AtomicBoolean();
+        private final AtomicBoolean slotFreed = new AtomicBoolean();
+        // Written once, before the heap copy is first dropped.
+        private volatile SpillSegments.Slot slot;
+        private volatile boolean referenced = true;
+
+        private TieredBody(TranscriptBodyTier owner, TranscriptBody body) {
+            this.owner = owner;
+            this.bytes = body.estimatedBytes();
+            this.lineCount = body.lineCount();
+            this.resident = new AtomicReference<>(body);
+        }
+
+        @Override
+        public int lineCount() {
+            return lineCount;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return bytes;
+        }
+
+        @Override
+        public TranscriptBody load() {
+            TranscriptBody body = resident.get();
+            return body != null ? body : RecordCodec.decodeBody(owner.segments.read(slot));
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = holders.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!holders.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.StorageProperties;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptBodyRef;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.persistence.RecordCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates transcript bodies in their {@link RecordCodec} encoding and keeps
+ * only the compressed bytes on the heap. Line texts are short, so on their own
+ * they compress poorly; once enough transcript text has been seen, a preset
+ * dictionary of its most valuable word runs is trained and every body
+ * compressed afterwards starts from it. Bodies compressed before that keep
+ * using no dictionary.
+ *
+ * <p>A small direct-mapped cache keeps recently read bodies decompressed, so a
+ * record opened several times in a row is inflated once.
+ */
+final class TranscriptCompressor {
+
+    private static final int MAX_NGRAM_WORDS = 3;
+    private static final int MIN_FRAGMENT_BYTES = 4;
+    private static final int MAX_POOLED_CODECS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final int level;
+    private final int dictionarySize;
+    private final long trainingSize;
+    private final AtomicReferenceArray<CompressedBody> cache;
+    private final int cacheMask;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock trainingLock = new ReentrantLock();
+    private final List<String> trainingTexts = new ArrayList<>();
+    private long trainingChars;
+    private volatile byte[] dictionary;
+
+    private final AtomicLong bodies = new AtomicLong();
+    private final AtomicLong encodedBytes = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    TranscriptCompressor(StorageProperties.Compression properties) {
+        this.level = properties.level();
+        this.dictionarySize = Math.toIntExact(Math.min(properties.dictionarySize().toBytes(), 32 * 1024));
+        this.trainingSize = properties.trainingSize().toBytes();
+        int cacheSize = Integer.highestOneBit(Math.max(1, properties.cacheSize()));
+        this.cache = new AtomicReferenceArray<>(cacheSize);
+        this.cacheMask = cacheSize - 1;
+    }
+
+    /**
+     * Returns a compressed reference to the body. A body this compressor
+     * already holds is shared rather than compressed again.
+     */
+    TranscriptBodyRef compress(TranscriptBodyRef ref) {
+        if (ref instanceof CompressedBody existing && existing.owner == this && existing.retain()) {
+            return existing;
+        }
+        TranscriptBody body = ref.load();
+        byte[] dictionary = this.dictionary;
+        if (dictionary == null && trainingSize > 0) {
+            sample(body.lines());
+            dictionary = this.dictionary;
+        }
+        byte[] encoded = RecordCodec.encodeBody(body);
+        byte[] deflated = deflate(encoded, dictionary);
+        CompressedBody compressed = new CompressedBody(this, deflated, encoded.length, dictionary, body);
+        bodies.incrementAndGet();
+        encodedBytes.addAndGet(encoded.length);
+        compressedBytes.addAndGet(deflated.length);
+        // The search index and the create response read the body right after the save.
+        cacheDecompressed(compressed, body);
+        return compressed;
+    }
+
+    /**
+     * Called once for every compressed body that leaves the store.
+     */
+    void release(TranscriptBodyRef ref) {
+        if (ref instanceof CompressedBody compressed && compressed.owner == this
+                && compressed.holders.decrementAndGet() == 0) {
+            bodies.decrementAndGet();
+            encodedBytes.addAndGet(-compressed.encodedLength);
+            compressedBytes.addAndGet(-compressed.deflated.length);
+            cache.compareAndSet(compressed.slot & cacheMask, compressed, null);
+        }
+    }
+
+    CompressionStats stats() {
+        return new CompressionStats(
+                dictionary != null,
+                bodies.get(),
+                encodedBytes.get(),
+                compressedBytes.get(),
+                cacheHits.sum(),
+                cacheMisses.sum()
+        );
+    }
+
+    private TranscriptBody decompress(CompressedBody compressed) {
+        int slot = compressed.slot & cacheMask;
+        if (cache.get(slot) == compressed) {
+            TranscriptBody body = compressed.decompressed;
+            if (body != null) {
+                cacheHits.increment();
+                return body;
+            }
+        }
+        cacheMisses.increment();
+        TranscriptBody body = RecordCodec.decodeBody(ByteBuffer.wrap(
+                inflate(compressed.deflated, compressed.encodedLength, compressed.dictionary)));
+        cacheDecompressed(compressed, body);
+        return body;
+    }
+
+    private void cacheDecompressed(CompressedBody compressed, TranscriptBody body) {
+        // The body is published before the slot, so a reader that sees the slot sees the body.
+        compressed.decompressed = body;
+        CompressedBody previous = cache.getAndSet(compressed.slot & cacheMask, compressed);
+        if (previous != null && previous != compressed) {
+            previous.decompressed = null;
+        }
+    }
+
+    private void sample(TranscriptLines lines) {
+        if (!trainingLock.tryLock()) {
+            return;
+        }
+        try {
+            if (dictionary != null) {
+                return;
+            }
+            for (int i = 0; i < lines.size() && trainingChars < trainingSize; i++) {
+                String text = lines.text(i);
+                trainingTexts.add(text);
+                trainingChars += text.length();
+            }
+            if (trainingChars >= trainingSize) {
+                dictionary = train(trainingTexts, dictionarySize);
+                trainingTexts.clear();
+            }
+        } finally {
+            trainingLock.unlock();
+        }
+    }
+
+    /**
+     * Picks the runs of one to three words that would save the most bytes
+     * across the sample and concatenates them, most valuable last: deflate codes
+     * nearer matches in fewer bits, and the end of the dictionary is nearest.
+     */
+    static byte[] train(List<String> texts, int size) {
+        Map<String, int[]> counts = new HashMap<>();
+        StringBuilder run = new StringBuilder();
+        for (String text : texts) {
+            String[] words = text.strip().split("\\s+");
+            for (int start = 0; start < words.length; start++) {
+                run.setLength(0);
+                for (int n = 0; n < MAX_NGRAM_WORDS && start + n < words.length; n++) {
+                    run.append(' ').append(words[start + n]);
+                    counts.computeIfAbsent(run.toString(), key -> new int[1])[0]++;
+                }
+            }
+        }
+
+        List<Map.Entry<String, Long>> scored = new ArrayList<>();
+        counts.forEach((fragment, count) -> {
+            int bytes = fragment.getBytes(StandardCharsets.UTF_8).length;
+            if (count[0] > 1 && bytes >= MIN_FRAGMENT_BYTES) {
+                scored.add(Map.entry(fragment, (long) (count[0] - 1) * bytes));
+            }
+        });
+        scored.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        List<byte[]> picked = new ArrayList<>();
+        int used = 0;
+        for (Map.Entry<String, Long> entry : scored) {
+            byte[] fragment = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            if (used + fragment.length > size) {
+                continue;
+            }
+            picked.add(fragment);
+            used += fragment.length;
+            if (size - used < MIN_FRAGMENT_BYTES) {
+                break;
+            }
+        }
+
+        byte[] dictionary = new byte[used];
+        int position = 0;
+        for (int i = picked.size() - 1; i >= 0; i--) {
+            byte[] fragment = picked.get(i);
+            System.arraycopy(fragment, 0, dictionary, position, fragment.length);
+            position += fragment.length;
+        }
+        return dictionary;
+    }
+
+    private byte[] deflate(byte[] input, byte[] dictionary) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] output = new byte[Math.max(64, input.length / 3)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            return Arrays.copyOf(output, length);
+        } finally {
+            deflater.reset();
+            if (deflaters.size() < MAX_POOLED_CODECS) {
+                deflaters.offer(deflater);
+            } else {
+                deflater.end();
+            }
+        }
+    }
+
+    private byte[] inflate(byte[] input, int length, byte[] dictionary) {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            if (dictionary != null) {
+                inflater.setDictionary(dictionary);
+            }
+            inflater.setInput(input);
+            byte[] output = new byte[length];
+            int inflated = 0;
+            while (inflated < length) {
+                int count = inflater.inflate(output, inflated, length - inflated);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("Compressed transcript body is truncated");
+                }
+                inflated += count;
+            }
+            return output;
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Compressed transcript body is corrupt", ex);
+        } finally {
+            inflater.reset();
+            if (inflaters.size() < MAX_POOLED_CODECS) {
+                inflaters.offer(inflater);
+            } else {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Counts as its deflated bytes: the dictionary is shared by every body, and
+     * a decompressed copy is held only while the body sits in the cache.
+     */
+    private static final class CompressedBody implements TranscriptBodyRef {
+        // Object header and fields, the holder counter and the array header.
+        private static final long OVERHEAD_BYTES = 96;
+
+        private final TranscriptCompressor owner;
+        private final byte[] deflated;
+        private final int encodedLength;
+        private final byte[] dictionary;
+        private final int lineCount;
+        private final int slot;
+        private final AtomicInteger holders = new AtomicInteger(1);
+        // Set while this body holds a slot in the owner's cache.
+        private volatile TranscriptBody decompressed;
+
+        private CompressedBody(
+                TranscriptCompressor owner,
+                byte[] deflated,
+                int encodedLength,
+                byte[] dictionary,
+                TranscriptBody body
+        ) {
+            this.owner = owner;
+            this.deflated = deflated;
+            this.encodedLength = encodedLength;
+            this.dictionary = dictionary;
+            this.lineCount = body.lineCount();
+            this.slot = owner.sequence.getAndIncrement();
+        }
+
+        @Override
+        public TranscriptBody load() {
+            return owner.decompress(this);
+        }
+
+        @Override
+        public int lineCount() {
+            return lineCount;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return OVERHEAD_BYTES + deflated.length;
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = holders.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!holders.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.model.TranscriptBodyRef;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.persistence.RecordCodec;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds each distinct transcript body once, keyed by the SHA-256 of its
+ * encoding and reference-counted across every record and user that stores it.
+ * A record saved with a body already held gets the held body, and its summary
+ * and highlights are swapped for the held instances when they are equal.
+ *
+ * <p>Bodies a transcription job produced are also indexed by video URL with
+ * that job's title, summary and highlights, so a later job for the video can
+ * reuse them without recomputing. Records clients upload are never indexed:
+ * their body is shared only with saves of the identical body, and nobody sees
+ * anything they did not save themselves.
+ */
+final class TranscriptContentStore {
+
+    // Shared entry, its key and the map nodes pointing at it.
+    private static final long SHARED_OVERHEAD_BYTES = 200;
+
+    private final Map<ContentKey, Shared> byContent = new ConcurrentHashMap<>();
+    // Body refs do not override equals, so this map is keyed by identity.
+    private final Map<TranscriptBodyRef, Shared> byBody = new ConcurrentHashMap<>();
+    private final Map<String, VideoEntry> byVideo = new ConcurrentHashMap<>();
+
+    private final AtomicLong savedBytes = new AtomicLong();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder videoLookups = new LongAdder();
+    private final LongAdder videoHits = new LongAdder();
+
+    /**
+     * Returns the record carrying the held body when an identical one is held,
+     * or null when its body is new; the caller then places the body and hands
+     * the placed record to {@link #register}.
+     */
+    TranscriptionRecord share(TranscriptionRecord record, boolean transcribed) {
+        lookups.increment();
+        Shared shared = byBody.get(record.getBodyRef());
+        if (shared == null) {
+            shared = byContent.get(ContentKey.of(record));
+        }
+        if (shared == null || !shared.retain()) {
+            return null;
+        }
+        hits.increment();
+        savedBytes.addAndGet(shared.bytes);
+        if (transcribed) {
+            indexVideo(record, shared);
+        }
+        return record.toBuilder()
+                .body(shared.body)
+                .summary(Objects.equals(shared.summary, record.getSummary()) ? shared.summary : record.getSummary())
+                .highlights(shared.highlights.equals(record.getHighlights()) ? shared.highlights : record.getHighlights())
+                .build();
+    }
+
+    /**
+     * Starts holding the body of a record whose body was not held yet.
+     */
+    void register(TranscriptionRecord original, TranscriptionRecord placed, boolean transcribed) {
+        Shared shared = new Shared(ContentKey.of(original), placed);
+        byBody.put(placed.getBodyRef(), shared);
+        // A concurrent save of the same body may have registered first; this one is then held unshared.
+        byContent.putIfAbsent(shared.key, shared);
+        if (transcribed) {
+            indexVideo(placed, shared);
+        }
+    }
+
+    /**
+     * Called once for every record that leaves the store. Returns whether the
+     * body is no longer held by any record.
+     */
+    boolean release(TranscriptionRecord record) {
+        Shared shared = byBody.get(record.getBodyRef());
+        if (shared == null) {
+            return true;
+        }
+        if (shared.references.decrementAndGet() > 0) {
+            savedBytes.addAndGet(-shared.bytes);
+            return false;
+        }
+        byBody.remove(shared.body, shared);
+        byContent.remove(shared.key, shared);
+        VideoEntry video = shared.video;
+        if (video != null) {
+            byVideo.remove(video.videoUrl, video);
+        }
+        return true;
+    }
+
+    /**
+     * A record held for the video, as a template without id, owner or
+     * creation time.
+     */
+    Optional<TranscriptionRecord> findByVideoUrl(String videoUrl) {
+        videoLookups.increment();
+        VideoEntry video = byVideo.get(videoUrl);
+        if (video == null || video.shared.references.get() == 0) {
+            return Optional.empty();
+        }
+        videoHits.increment();
+        return Optional.of(TranscriptionRecord.builder()
+                .videoTitle(video.videoTitle)
+                .videoUrl(videoUrl)
+                .summary(video.summary)
+                .highlights(video.highlights)
+                .body(video.shared.body)
+                .build());
+    }
+
+    DeduplicationStats stats() {
+        return new DeduplicationStats(
+                byBody.size(),
+                savedBytes.get(),
+                lookups.sum(),
+                hits.sum(),
+                videoLookups.sum(),
+                videoHits.sum()
+        );
+    }
+
+    private void indexVideo(TranscriptionRecord record, Shared shared) {
+        // A body is indexed under the first video a job produced it for.
+        String videoUrl = record.getVideoUrl();
+        if (videoUrl == null || shared.video != null) {
+            return;
+        }
+        VideoEntry indexed = byVideo.get(videoUrl);
+        if (indexed == null || indexed.shared.references.get() == 0) {
+            VideoEntry video = new VideoEntry(videoUrl, shared, record.getVideoTitle(),
+                    Objects.equals(shared.summary, record.getSummary()) ? shared.summary : record.getSummary(),
+                    shared.highlights.equals(record.getHighlights()) ? shared.highlights : record.getHighlights());
+            shared.video = video;
+            byVideo.put(videoUrl, video);
+        }
+    }
+
+    private record VideoEntry(String videoUrl, Shared shared, String videoTitle, String summary,
+                              List<String> highlights) {
+    }
+
+    private static final class Shared {
+        private final ContentKey key;
+        private final TranscriptBodyRef body;
+        private final String summary;
+        private final List<String> highlights;
+        private final long bytes;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private volatile VideoEntry video;
+
+        private Shared(ContentKey key, TranscriptionRecord record) {
+            this.key = key;
+            this.body = record.getBodyRef();
+            this.summary = record.getSummary();
+            this.highlights = record.getHighlights();
+            long bytes = SHARED_OVERHEAD_BYTES + body.estimatedBytes();
+            if (summary != null) {
+                bytes += 2L * summary.length();
+            }
+            for (String highlight : highlights) {
+                bytes += 2L * highlight.length();
+            }
+            this.bytes = bytes;
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+
+    private record ContentKey(long h0, long h1, long h2, long h3) {
+
+        static ContentKey of(TranscriptionRecord record) {
+            ByteBuffer digest = ByteBuffer.wrap(sha256().digest(RecordCodec.encodeBody(record.getBody())));
+            return new ContentKey(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is not available", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.model.TranscriptionRecord;
+
+import java.util.List;
+
+/**
+ * What changed for a user after a client's version: the records saved since,
+ * as they are now, and the ids deleted since. When the change log no longer
+ * reaches back to that version, {@code resyncRequired} is set and the client
+ * has to fetch the full list, then continue from {@code version}.
+ */
+public record TranscriptionChanges(
+        long version,
+        boolean resyncRequired,
+        List<TranscriptionRecord> upserts,
+        List<String> deletedIds
+) {
+    static TranscriptionChanges resync(long version) {
+        return new TranscriptionChanges(version, true, List.of(), List.of());
+    }
+}
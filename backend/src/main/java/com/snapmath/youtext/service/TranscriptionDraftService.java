@@ -0,0 +1,233 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.DraftProperties;
+import com.snapmath.youtext.model.TranscriptBody;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionDraft;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import com.snapmath.youtext.summary.ExtractiveSummarizer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transcriptions uploaded in pieces: a draft is opened with its video, grows by
+ * batches of lines appended to a columnar builder, and becomes a record when it
+ * is completed with its summary. Each append only touches its own batch. Drafts
+ * live in memory and are dropped after sitting idle for the configured TTL.
+ */
+@Service
+public class TranscriptionDraftService {
+
+    private final Map<String, DraftState> drafts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> openByUser = new ConcurrentHashMap<>();
+    private final TranscriptionService transcriptionService;
+    private final ExtractiveSummarizer summarizer;
+    private final Duration idleTtl;
+    private final int maxPerUser;
+    private final int maxLines;
+
+    public TranscriptionDraftService(
+            TranscriptionService transcriptionService,
+            ExtractiveSummarizer summarizer,
+            DraftProperties properties
+    ) {
+        this.transcriptionService = transcriptionService;
+        this.summarizer = summarizer;
+        this.idleTtl = properties.idleTtl();
+        this.maxPerUser = properties.maxPerUser();
+        this.maxLines = properties.maxLines();
+    }
+
+    /**
+     * Opens a draft, or returns empty when the user already has the maximum number open.
+     */
+    public Optional<TranscriptionDraft> open(String userId, String videoTitle, String videoUrl) {
+        boolean[] admitted = new boolean[1];
+        openByUser.compute(userId, (key, open) -> {
+            int count = open != null ? open : 0;
+            admitted[0] = count < maxPerUser;
+            return admitted[0] ? count + 1 : open;
+        });
+        if (!admitted[0]) {
+            return Optional.empty();
+        }
+        DraftState draft = new DraftState(UUID.randomUUID().toString(), userId, videoTitle, videoUrl, Instant.now());
+        drafts.put(draft.id, draft);
+        return Optional.of(draft.view(idleTtl));
+    }
+
+    public Optional<TranscriptionDraft> find(String userId, String draftId) {
+        return owned(userId, draftId).map(draft -> draft.view(idleTtl));
+    }
+
+    /**
+     * Appends a batch of lines, sorted by start time. When {@code expectedOffset}
+     * is given it must equal the current line count, which makes a retried batch
+     * fail instead of being appended twice.
+     */
+    public DraftResult<TranscriptionDraft> append(
+            String userId,
+            String draftId,
+            Integer expectedOffset,
+            TranscriptLines batch
+    ) {
+        Optional<DraftState> owned = owned(userId, draftId);
+        if (owned.isEmpty()) {
+            return DraftResult.rejected(DraftResult.Outcome.NOT_FOUND);
+        }
+        DraftState draft = owned.get();
+        draft.lock.lock();
+        try {
+            if (draft.closed) {
+                return DraftResult.rejected(DraftResult.Outcome.NOT_FOUND);
+            }
+            TranscriptLines.Builder lines = draft.lines;
+            if (expectedOffset != null && expectedOffset != lines.size()) {
+                return DraftResult.rejected(DraftResult.Outcome.OFFSET_MISMATCH);
+            }
+            if ((long) lines.size() + batch.size() > maxLines) {
+                return DraftResult.rejected(DraftResult.Outcome.LINE_LIMIT);
+            }
+            if (!batch.isEmpty() && lines.size() > 0 && batch.startMillis(0) < lines.lastStartMillis()) {
+                return DraftResult.rejected(DraftResult.Outcome.OUT_OF_ORDER);
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                lines.add(batch.timestamp(i), batch.text(i), batch.startMillis(i));
+            }
+            draft.touchedAt = Instant.now();
+            return DraftResult.applied(draft.view(idleTtl));
+        } finally {
+            draft.lock.unlock();
+        }
+    }
+
+    /**
+     * Turns the draft into a saved record. Without an explicit transcript, the
+     * transcript is the line texts joined by newlines; a missing summary or
+     * highlights are extracted from the lines.
+     */
+    public DraftResult<TranscriptionRecord> complete(
+            String userId,
+            String draftId,
+            String summary,
+            List<String> highlights,
+            String transcript
+    ) {
+        Optional<DraftState> owned = owned(userId, draftId);
+        if (owned.isEmpty()) {
+            return DraftResult.rejected(DraftResult.Outcome.NOT_FOUND);
+        }
+        DraftState draft = owned.get();
+        TranscriptLines lines;
+        draft.lock.lock();
+        try {
+            if (draft.closed) {
+                return DraftResult.rejected(DraftResult.Outcome.NOT_FOUND);
+            }
+            if (draft.lines.size() == 0) {
+                return DraftResult.rejected(DraftResult.Outcome.EMPTY);
+            }
+            close(draft);
+            lines = draft.lines.build();
+        } finally {
+            draft.lock.unlock();
+        }
+
+        TranscriptBody body = transcript != null
+                ? TranscriptBody.of(transcript, lines)
+                : TranscriptBody.joined(lines, '\n');
+        TranscriptionRecord record = TranscriptionRecord.builder()
+                .userId(userId)
+                .videoTitle(draft.videoTitle)
+                .videoUrl(draft.videoUrl)
+                .summary(summary)
+                .highlights(highlights)
+                .body(body)
+                .build();
+        return DraftResult.applied(transcriptionService.save(userId, summarizer.complete(record)));
+    }
+
+    public boolean discard(String userId, String draftId) {
+        Optional<DraftState> owned = owned(userId, draftId);
+        if (owned.isEmpty()) {
+            return false;
+        }
+        DraftState draft = owned.get();
+        draft.lock.lock();
+        try {
+            if (draft.closed) {
+                return false;
+            }
+            close(draft);
+            return true;
+        } finally {
+            draft.lock.unlock();
+        }
+    }
+
+    public int openDrafts() {
+        return drafts.size();
+    }
+
+    @Scheduled(fixedDelayString = "${youtext.drafts.eviction-interval:PT1M}")
+    public void evictIdleDrafts() {
+        Instant cutoff = Instant.now().minus(idleTtl);
+        for (DraftState draft : drafts.values()) {
+            if (draft.touchedAt.isAfter(cutoff) || !draft.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (!draft.closed && !draft.touchedAt.isAfter(cutoff)) {
+                    close(draft);
+                }
+            } finally {
+                draft.lock.unlock();
+            }
+        }
+    }
+
+    private Optional<DraftState> owned(String userId, String draftId) {
+        DraftState draft = drafts.get(draftId);
+        return draft != null && draft.userId.equals(userId) ? Optional.of(draft) : Optional.empty();
+    }
+
+    private void close(DraftState draft) {
+        draft.closed = true;
+        drafts.remove(draft.id, draft);
+        openByUser.computeIfPresent(draft.userId, (key, open) -> open > 1 ? open - 1 : null);
+    }
+
+    private static final class DraftState {
+        private final String id;
+        private final String userId;
+        private final String videoTitle;
+        private final String videoUrl;
+        private final Instant openedAt;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TranscriptLines.Builder lines = TranscriptLines.builder(256);
+        private volatile Instant touchedAt;
+        private boolean closed;
+
+        private DraftState(String id, String userId, String videoTitle, String videoUrl, Instant openedAt) {
+            this.id = id;
+            this.userId = userId;
+            this.videoTitle = videoTitle;
+            this.videoUrl = videoUrl;
+            this.openedAt = openedAt;
+            this.touchedAt = openedAt;
+        }
+
+        TranscriptionDraft view(Duration idleTtl) {
+            return new TranscriptionDraft(id, userId, videoTitle, videoUrl, lines.size(), openedAt, touchedAt.plus(idleTtl));
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.snapmath.youtext.service;
 
+import com.snapmath.youtext.model.TranscriptionCursor;
 import com.snapmath.youtext.model.TranscriptionRecord;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,9 +11,38 @@ public interface TranscriptionService {
 
     TranscriptionRecord save(String userId, TranscriptionRecord record);
 
-    List<TranscriptionRecord> findAll(String userId);
+    /**
+     * Saves a record the job pipeline produced. Only these are offered to
+     * later jobs for the same video through {@link #findTranscribed}.
+     */
+    TranscriptionRecord saveTranscribed(String userId, TranscriptionRecord record);
+
+    Collection<TranscriptionRecord> findAll(String userId);
+
+    List<TranscriptionRecord> findPage(String userId, TranscriptionCursor after, int limit);
 
     Optional<TranscriptionRecord> findOne(String userId, String id);
 
+    /**
+     * Like {@link #findOne} for reads the user did not ask for by id, such as
+     * search: a body the store has spilled is read in place and not counted
+     * as a use, so it stays spilled.
+     */
+    Optional<TranscriptionRecord> peek(String userId, String id);
+
     void delete(String userId, String id);
+
+    /**
+     * The user's saves and deletes after {@code since}, a version taken from
+     * an earlier result, or a resync signal when they are no longer known.
+     */
+    TranscriptionChanges changesSince(String userId, long since);
+
+    /**
+     * A transcription of the video a job already produced and some user still
+     * holds, as a template without id, owner or creation time.
+     */
+    Optional<TranscriptionRecord> findTranscribed(String videoUrl);
+
+    TranscriptionStoreStats stats();
 }
@@ -0,0 +1,14 @@
+package com.snapmath.youtext.service;
+
+/**
+ * Size of the transcription store. {@code estimatedBytes} is the heap the
+ * records would take with every body loaded, whether or not bodies are
+ * currently spilled.
+ */
+public record TranscriptionStoreStats(
+        int users,
+        long records,
+        long lines,
+        long estimatedBytes
+) {
+}
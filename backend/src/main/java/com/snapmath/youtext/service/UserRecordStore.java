@@ -0,0 +1,155 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.model.TranscriptionCursor;
+import com.snapmath.youtext.model.TranscriptionRecord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records of a single user, indexed by id and ordered newest first, with a
+ * bounded log of the user's latest changes for delta sync.
+ * Reads never block; writers and change log readers hold {@link #writeLock}.
+ */
+class UserRecordStore {
+
+    static final Comparator<TranscriptionCursor> NEWEST_FIRST = Comparator
+            .comparing(TranscriptionCursor::createdAt, Comparator.reverseOrder())
+            .thenComparing(TranscriptionCursor::id);
+
+    private final Map<String, TranscriptionRecord> byId = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<TranscriptionCursor, TranscriptionRecord> byCreatedAt =
+            new ConcurrentSkipListMap<>(NEWEST_FIRST);
+    private final Collection<TranscriptionRecord> view =
+            Collections.unmodifiableCollection(byCreatedAt.values());
+
+    final ReentrantLock writeLock = new ReentrantLock();
+    // Set under the write lock once the store is empty and leaves the owner's map.
+    boolean retired;
+    // The retired store this one continues, until the owner has dropped it. Guarded by the write lock.
+    UserRecordStore predecessor;
+
+    // Guarded by the write lock. Every change after floor is in the log.
+    private final ArrayDeque<Change> changes = new ArrayDeque<>();
+    private final int maxChanges;
+    private long version;
+    private long floor;
+
+    UserRecordStore(long version, int maxChanges) {
+        this.version = version;
+        this.floor = version;
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * An empty store continuing the change log of a retired one. A retired
+     * store is never written again and was published through the owner's
+     * retired map, so its log is read without the lock.
+     */
+    UserRecordStore(UserRecordStore retired) {
+        this.changes.addAll(retired.changes);
+        this.maxChanges = retired.maxChanges;
+        this.version = retired.version;
+        this.floor = retired.floor;
+        this.predecessor = retired;
+    }
+
+    TranscriptionRecord get(String id) {
+        return byId.get(id);
+    }
+
+    Collection<TranscriptionRecord> newestFirst() {
+        return view;
+    }
+
+    List<TranscriptionRecord> page(TranscriptionCursor after, int limit) {
+        Collection<TranscriptionRecord> source = after != null
+                ? byCreatedAt.tailMap(after, false).values()
+                : byCreatedAt.values();
+        List<TranscriptionRecord> page = new ArrayList<>(Math.min(limit, byId.size()));
+        for (TranscriptionRecord record : source) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(record);
+        }
+        return page;
+    }
+
+    boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    TranscriptionRecord put(TranscriptionRecord record) {
+        TranscriptionCursor key = TranscriptionCursor.of(record);
+        byCreatedAt.put(key, record);
+        TranscriptionRecord previous = byId.put(record.getId(), record);
+        if (previous != null) {
+            TranscriptionCursor previousKey = TranscriptionCursor.of(previous);
+            if (!previousKey.equals(key)) {
+                byCreatedAt.remove(previousKey, previous);
+            }
+        }
+        return previous;
+    }
+
+    long version() {
+        return version;
+    }
+
+    void recordChange(long version, String recordId, boolean deleted) {
+        this.version = version;
+        changes.addLast(new Change(version, recordId, deleted));
+        if (changes.size() > maxChanges) {
+            floor = changes.removeFirst().version();
+        }
+    }
+
+    /**
+     * The latest change to each record after {@code since}, oldest first, or
+     * null when the log does not reach back that far.
+     */
+    List<Change> changesSince(long since) {
+        if (since < floor || since > version) {
+            return null;
+        }
+        Map<String, Change> latest = new LinkedHashMap<>();
+        Iterator<Change> newestFirst = changes.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Change change = newestFirst.next();
+            if (change.version() <= since) {
+                break;
+            }
+            latest.putIfAbsent(change.recordId(), change);
+        }
+        List<Change> result = new ArrayList<>(latest.values());
+        Collections.reverse(result);
+        return result;
+    }
+
+    TranscriptionRecord remove(String id) {
+        TranscriptionRecord removed = byId.remove(id);
+        if (removed != null) {
+            byCreatedAt.remove(TranscriptionCursor.of(removed), removed);
+        }
+        return removed;
+    }
+
+    record Change(long version, String recordId, boolean deleted) {
+    }
+}
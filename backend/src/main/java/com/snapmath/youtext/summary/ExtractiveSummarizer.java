@@ -0,0 +1,397 @@
+package com.snapmath.youtext.summary;
+
+import com.snapmath.youtext.config.SummaryProperties;
+import com.snapmath.youtext.job.Summarizer;
+import com.snapmath.youtext.job.TranscriptSummary;
+import com.snapmath.youtext.model.TranscriptLines;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Extractive summaries from the transcript lines alone. Each line is scored by
+ * its similarity to the transcript's TF-IDF centroid, and the best-scoring lines
+ * that do not repeat an already chosen one become the highlights (best first)
+ * and the summary (in transcript order).
+ *
+ * <p>Both passes over the lines run as fork/join tasks over line ranges. Terms
+ * are hashed straight from the columnar line buffer, so no strings are created
+ * per line or per token.
+ */
+@Component
+public class ExtractiveSummarizer implements Summarizer {
+
+    private static final int LEAF_LINES = 2048;
+    private static final int LEAF_TERMS = 256;
+    private static final int MIN_TOKENS = 4;
+    private static final int CANDIDATES_PER_PICK = 4;
+    private static final double MAX_OVERLAP = 0.5;
+
+    private static final long[] STOPWORDS = stopwordHashes(
+            "a", "about", "after", "again", "all", "also", "am", "an", "and", "any", "are", "as", "at", "be",
+            "because", "been", "before", "being", "but", "by", "can", "could", "did", "do", "does", "doing",
+            "don", "down", "even", "for", "from", "get", "go", "going", "got", "gonna", "had", "has", "have",
+            "he", "her", "here", "him", "his", "how", "i", "if", "in", "into", "is", "it", "its", "just",
+            "know", "like", "ll", "me", "more", "my", "no", "not", "now", "of", "oh", "ok", "okay", "on",
+            "one", "or", "our", "out", "re", "really", "right", "s", "say", "see", "she", "so", "some",
+            "that", "the", "their", "them", "then", "there", "these", "they", "thing", "think", "this",
+            "those", "to", "too", "uh", "um", "up", "us", "ve", "very", "want", "was", "we", "well", "were",
+            "what", "when", "where", "which", "who", "why", "will", "with", "would", "yeah", "you", "your"
+    );
+
+    private final ForkJoinPool pool;
+    private final int sentences;
+    private final int maxLength;
+    private final int highlights;
+
+    public ExtractiveSummarizer(SummaryProperties properties) {
+        this.pool = ForkJoinPool.commonPool();
+        this.sentences = properties.sentences();
+        this.maxLength = properties.maxLength();
+        this.highlights = properties.highlights();
+    }
+
+    @Override
+    public TranscriptSummary summarize(String title, TranscriptLines lines) {
+        if (lines.isEmpty()) {
+            return new TranscriptSummary(title, title != null ? List.of(title) : List.of());
+        }
+        float[] scores = score(lines);
+        int[] picked = pick(lines, scores, Math.max(sentences, highlights));
+        if (picked.length == 0) {
+            picked = firstNonBlank(lines, Math.max(sentences, highlights));
+        }
+
+        List<String> highlightTexts = new ArrayList<>(Math.min(highlights, picked.length));
+        for (int i = 0; i < picked.length && highlightTexts.size() < highlights; i++) {
+            highlightTexts.add(lines.text(picked[i]).trim());
+        }
+
+        int[] summaryLines = Arrays.copyOf(picked, Math.min(sentences, picked.length));
+        Arrays.sort(summaryLines);
+        StringBuilder summary = new StringBuilder(maxLength);
+        for (int line : summaryLines) {
+            String text = lines.text(line).trim();
+            int separator = summary.length() > 0 ? 1 : 0;
+            if (summary.length() > 0 && summary.length() + separator + text.length() > maxLength) {
+                continue;
+            }
+            if (separator > 0) {
+                summary.append(' ');
+            }
+            summary.append(text, 0, Math.min(text.length(), maxLength));
+        }
+        return new TranscriptSummary(summary.toString(), highlightTexts);
+    }
+
+    /**
+     * Fills in whichever of summary and highlights the record is missing.
+     */
+    public TranscriptionRecord complete(TranscriptionRecord record) {
+        boolean missingSummary = record.getSummary() == null || record.getSummary().isBlank();
+        if (!missingSummary && !record.getHighlights().isEmpty()) {
+            return record;
+        }
+        TranscriptSummary generated = summarize(record.getVideoTitle(), record.getBody().lines());
+        return record.toBuilder()
+                .summary(missingSummary ? generated.summary() : record.getSummary())
+                .highlights(record.getHighlights().isEmpty() ? generated.highlights() : record.getHighlights())
+                .build();
+    }
+
+    float[] score(TranscriptLines lines) {
+        TermTable terms = pool.invoke(new CountTask(lines, 0, lines.size()));
+        terms.computeWeights(lines.size());
+        float[] scores = new float[lines.size()];
+        pool.invoke(new ScoreTask(lines, terms, scores, 0, lines.size()));
+        return scores;
+    }
+
+    /**
+     * Highest-scoring lines, best first, skipping lines whose terms mostly repeat
+     * a line already picked (Jaccard similarity of their term sets).
+     */
+    private static int[] pick(TranscriptLines lines, float[] scores, int count) {
+        int[] candidates = topByScore(scores, count * CANDIDATES_PER_PICK);
+        int[] picked = new int[Math.min(count, candidates.length)];
+        long[][] pickedTerms = new long[picked.length][];
+        int size = 0;
+        TokenCursor cursor = new TokenCursor();
+        for (int candidate : candidates) {
+            if (size == picked.length) {
+                break;
+            }
+            long[] terms = cursor.distinctTerms(lines, candidate);
+            boolean redundant = false;
+            for (int i = 0; i < size && !redundant; i++) {
+                redundant = overlap(terms, pickedTerms[i]) > MAX_OVERLAP;
+            }
+            if (!redundant) {
+                picked[size] = candidate;
+                pickedTerms[size] = terms;
+                size++;
+            }
+        }
+        return Arrays.copyOf(picked, size);
+    }
+
+    private static int[] topByScore(float[] scores, int limit) {
+        // Min-heap of line indexes on score, so the weakest of the current top is at the root.
+        int[] heap = new int[Math.min(limit, scores.length)];
+        int size = 0;
+        for (int line = 0; line < scores.length; line++) {
+            if (scores[line] <= 0) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = line;
+                siftUp(heap, scores, size++);
+            } else if (scores[line] > scores[heap[0]]) {
+                heap[0] = line;
+                siftDown(heap, scores, size);
+            }
+        }
+        int[] ordered = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ordered[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, scores, size);
+        }
+        return ordered;
+    }
+
+    private static void siftUp(int[] heap, float[] scores, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[heap[parent]] <= scores[heap[index]]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, float[] scores, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && scores[heap[left]] < scores[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && scores[heap[right]] < scores[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+
+    private static double overlap(long[] left, long[] right) {
+        if (left.length == 0 || right.length == 0) {
+            return 0;
+        }
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                shared++;
+                i++;
+                j++;
+            }
+        }
+        return (double) shared / (left.length + right.length - shared);
+    }
+
+    private static int[] firstNonBlank(TranscriptLines lines, int count) {
+        int[] picked = new int[Math.min(count, lines.size())];
+        int size = 0;
+        for (int i = 0; i < lines.size() && size < picked.length; i++) {
+            if (!lines.text(i).isBlank()) {
+                picked[size++] = i;
+            }
+        }
+        return Arrays.copyOf(picked, size);
+    }
+
+    private static long[] stopwordHashes(String... words) {
+        long[] hashes = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            char[] chars = words[i].toCharArray();
+            hashes[i] = TokenCursor.hash(chars, 0, chars.length);
+        }
+        Arrays.sort(hashes);
+        return hashes;
+    }
+
+    private static final class CountTask extends RecursiveTask<TermTable> {
+        private final TranscriptLines lines;
+        private final int from;
+        private final int to;
+
+        private CountTask(TranscriptLines lines, int from, int to) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TermTable compute() {
+            if (to - from <= LEAF_LINES) {
+                TermTable table = new TermTable(LEAF_TERMS);
+                TokenCursor cursor = new TokenCursor();
+                for (int line = from; line < to; line++) {
+                    cursor.reset(lines, line);
+                    while (cursor.next()) {
+                        table.count(cursor.term, line);
+                    }
+                }
+                return table;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask right = new CountTask(lines, middle, to);
+            right.fork();
+            TermTable left = new CountTask(lines, from, middle).compute();
+            TermTable other = right.join();
+            if (left.size() >= other.size()) {
+                left.merge(other);
+                return left;
+            }
+            other.merge(left);
+            return other;
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveAction {
+        private final TranscriptLines lines;
+        private final TermTable terms;
+        private final float[] scores;
+        private final int from;
+        private final int to;
+
+        private ScoreTask(TranscriptLines lines, TermTable terms, float[] scores, int from, int to) {
+            this.lines = lines;
+            this.terms = terms;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_LINES) {
+                TokenCursor cursor = new TokenCursor();
+                for (int line = from; line < to; line++) {
+                    cursor.reset(lines, line);
+                    double sum = 0;
+                    int tokens = 0;
+                    while (cursor.next()) {
+                        sum += terms.weight(cursor.term);
+                        tokens++;
+                    }
+                    // Cosine-style length normalisation; very short lines are damped further.
+                    double score = tokens > 0 ? sum / Math.sqrt(tokens) : 0;
+                    scores[line] = (float) (tokens < MIN_TOKENS ? score * tokens / MIN_TOKENS : score);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new ScoreTask(lines, terms, scores, from, middle),
+                    new ScoreTask(lines, terms, scores, middle, to)
+            );
+        }
+    }
+
+    /**
+     * Walks the terms of one line at a time: lower-cased letter/digit runs of two
+     * or more chars that are not stopwords, each reduced to a 64-bit FNV-1a hash.
+     */
+    private static final class TokenCursor {
+        private char[] chars = new char[256];
+        private int length;
+        private int position;
+        private long term;
+
+        void reset(TranscriptLines lines, int line) {
+            length = lines.textLength(line);
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            lines.getTextChars(line, 0, length, chars, 0);
+            position = 0;
+        }
+
+        boolean next() {
+            while (position < length) {
+                while (position < length && !Character.isLetterOrDigit(chars[position])) {
+                    position++;
+                }
+                int start = position;
+                while (position < length && Character.isLetterOrDigit(chars[position])) {
+                    chars[position] = Character.toLowerCase(chars[position]);
+                    position++;
+                }
+                if (position - start >= 2) {
+                    term = hash(chars, start, position);
+                    if (Arrays.binarySearch(STOPWORDS, term) < 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        long[] distinctTerms(TranscriptLines lines, int line) {
+            reset(lines, line);
+            long[] terms = new long[8];
+            int size = 0;
+            while (next()) {
+                if (size == terms.length) {
+                    terms = Arrays.copyOf(terms, size * 2);
+                }
+                terms[size++] = term;
+            }
+            terms = Arrays.copyOf(terms, size);
+            Arrays.sort(terms);
+            int distinct = 0;
+            for (int i = 0; i < terms.length; i++) {
+                if (i == 0 || terms[i] != terms[i - 1]) {
+                    terms[distinct++] = terms[i];
+                }
+            }
+            return Arrays.copyOf(terms, distinct);
+        }
+
+        static long hash(char[] chars, int from, int to) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = from; i < to; i++) {
+                hash ^= chars[i];
+                hash *= 0x100000001b3L;
+            }
+            // Zero marks an empty slot in TermTable.
+            return hash != 0 ? hash : 1;
+        }
+    }
+}
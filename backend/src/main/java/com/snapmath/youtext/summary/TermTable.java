@@ -0,0 +1,139 @@
+package com.snapmath.youtext.summary;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from a 64-bit term hash to its counts in the transcript:
+ * total occurrences and the number of lines it occurs in. Parallel primitive
+ * arrays keep it free of per-term objects.
+ */
+final class TermTable {
+
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int[] occurrences;
+    private int[] lineCounts;
+    private int[] lastLine;
+    private float[] weights;
+    private int size;
+    private int mask;
+
+    TermTable(int expectedTerms) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedTerms * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Counts one occurrence of {@code term} in {@code line}. Lines of one table must be visited in order.
+     */
+    void count(long term, int line) {
+        int slot = insert(term);
+        occurrences[slot]++;
+        if (lastLine[slot] != line) {
+            lastLine[slot] = line;
+            lineCounts[slot]++;
+        }
+    }
+
+    /**
+     * Adds the counts of a table built over a disjoint range of lines.
+     */
+    void merge(TermTable other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                int slot = insert(other.keys[i]);
+                occurrences[slot] += other.occurrences[i];
+                lineCounts[slot] += other.lineCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Weights every term by its share of the transcript centroid: occurrences
+     * times squared inverse line frequency.
+     */
+    void computeWeights(int totalLines) {
+        weights = new float[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                double idf = Math.log(1.0 + (double) totalLines / lineCounts[i]);
+                weights[i] = (float) (occurrences[i] * idf * idf);
+            }
+        }
+    }
+
+    float weight(long term) {
+        int slot = find(term);
+        return slot >= 0 ? weights[slot] : 0f;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(long term) {
+        int slot = mix(term) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == term) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(long term) {
+        int slot = mix(term) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == term) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (2 * (size + 1) > keys.length) {
+            grow();
+            return insert(term);
+        }
+        keys[slot] = term;
+        lastLine[slot] = -1;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldOccurrences = occurrences;
+        int[] oldLineCounts = lineCounts;
+        int[] oldLastLine = lastLine;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                occurrences[slot] = oldOccurrences[i];
+                lineCounts[slot] = oldLineCounts[i];
+                lastLine[slot] = oldLastLine[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        occurrences = new int[capacity];
+        lineCounts = new int[capacity];
+        lastLine = new int[capacity];
+        Arrays.fill(lastLine, -1);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int mix(long term) {
+        long h = term * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
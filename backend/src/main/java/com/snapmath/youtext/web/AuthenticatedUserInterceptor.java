@@ -0,0 +1,32 @@
+package com.snapmath.youtext.web;
+
+import com.snapmath.youtext.controller.TranscriptionController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class AuthenticatedUserInterceptor implements HandlerInterceptor {
+
+    public static final String USER_ATTRIBUTE = "youtext.authenticatedUserId";
+
+    private final PrincipalCache principals;
+
+    public AuthenticatedUserInterceptor(PrincipalCache principals) {
+        this.principals = principals;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(TranscriptionController.USER_HEADER);
+        String userId = header != null && !header.isBlank() ? principals.resolve(header) : null;
+        if (userId == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return false;
+        }
+        request.setAttribute(USER_ATTRIBUTE, userId);
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package com.snapmath.youtext.web;
+
+import com.snapmath.youtext.config.SessionProperties;
+import com.snapmath.youtext.event.SessionEndedEvent;
+import com.snapmath.youtext.model.Session;
+import com.snapmath.youtext.service.AuthService;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers users that recently passed validation until their session expires,
+ * so a request from an already-authenticated user costs a single map lookup.
+ * When full, entries are evicted in table order, resuming where the previous
+ * eviction stopped, so every entry is visited before any is visited twice.
+ */
+@Component
+public class PrincipalCache {
+
+    private final AuthService authService;
+    private final int capacity;
+    private final Map<String, Principal> principals = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<String> evictionCursor;
+
+    public PrincipalCache(AuthService authService, SessionProperties properties) {
+        this.authService = authService;
+        this.capacity = properties.principalCacheSize();
+    }
+
+    public String resolve(String userId) {
+        Principal cached = principals.get(userId);
+        long now = System.currentTimeMillis();
+        if (cached != null && now < cached.expiresAtMillis) {
+            return cached.userId;
+        }
+        return load(userId, now);
+    }
+
+    @EventListener
+    public void onSessionEnded(SessionEndedEvent event) {
+        principals.remove(event.userId());
+    }
+
+    public int size() {
+        return principals.size();
+    }
+
+    private String load(String userId, long now) {
+        if (authService.findById(userId).isEmpty()) {
+            return null;
+        }
+        Optional<Session> session = authService.getActiveSession(userId);
+        if (session.isEmpty()) {
+            principals.remove(userId);
+            return null;
+        }
+
+        if (principals.size() >= capacity) {
+            evictOne();
+        }
+        Principal principal = new Principal(userId, session.get().expiresAt().toEpochMilli());
+        principals.put(userId, principal);
+        // A sign-out between the check and the put has already fired its event; check again so it is not undone.
+        if (authService.getActiveSession(userId).isEmpty()) {
+            principals.remove(userId, principal);
+            return null;
+        }
+        return userId;
+    }
+
+    private void evictOne() {
+        // A load that finds another evicting skips it, so the cache can exceed capacity by the concurrent loads.
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (evictionCursor == null || !evictionCursor.hasNext()) {
+                evictionCursor = principals.keySet().iterator();
+            }
+            if (evictionCursor.hasNext()) {
+                principals.remove(evictionCursor.next());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Principal {
+        private final String userId;
+        private final long expiresAtMillis;
+
+        private Principal(String userId, long expiresAtMillis) {
+            this.userId = userId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.snapmath.youtext.web;
+
+import com.snapmath.youtext.config.RateLimitProperties;
+import com.snapmath.youtext.config.RateLimitProperties.Limit;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits API requests through the {@link RateLimiter}, with a bucket per
+ * client and handler method. Clients are the authenticated user, so this runs
+ * after {@link AuthenticatedUserInterceptor}; requests without one, such as
+ * sign-in, are keyed by remote address. Requests with a body cost one token
+ * more per {@code bytesPerToken}, judged by Content-Length before the body is
+ * read; a body of unknown length costs a full bucket. Rejected requests get
+ * 429 with Retry-After.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter limiter;
+    private final long bytesPerToken;
+    private final Limit read;
+    private final Limit write;
+    private final Limit auth;
+    private final Map<Method, RateLimiter.Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimiter limiter, RateLimitProperties properties) {
+        this.limiter = limiter;
+        this.bytesPerToken = Math.max(1, properties.bytesPerToken().toBytes());
+        this.read = properties.read();
+        this.write = properties.write();
+        this.auth = properties.auth();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimiter.Endpoint endpoint = endpoint(request, handlerMethod.getMethod());
+        long waitNanos = limiter.acquire(client(request), endpoint, tokens(request, endpoint));
+        if (waitNanos == 0) {
+            return true;
+        }
+        long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return false;
+    }
+
+    private RateLimiter.Endpoint endpoint(HttpServletRequest request, Method method) {
+        RateLimiter.Endpoint endpoint = endpoints.get(method);
+        if (endpoint == null) {
+            RateLimiter.Endpoint created = new RateLimiter.Endpoint(limitFor(request));
+            endpoint = endpoints.putIfAbsent(method, created);
+            if (endpoint == null) {
+                endpoint = created;
+            }
+        }
+        return endpoint;
+    }
+
+    private Limit limitFor(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            return auth;
+        }
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? read : write;
+    }
+
+    private static String client(HttpServletRequest request) {
+        Object userId = request.getAttribute(AuthenticatedUserInterceptor.USER_ATTRIBUTE);
+        return userId != null ? (String) userId : request.getRemoteAddr();
+    }
+
+    private long tokens(HttpServletRequest request, RateLimiter.Endpoint endpoint) {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            return request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null ? endpoint.capacity() : 1;
+        }
+        return 1 + length / bytesPerToken;
+    }
+}
@@ -0,0 +1,153 @@
+package com.snapmath.youtext.web;
+
+import com.snapmath.youtext.config.RateLimitProperties;
+import com.snapmath.youtext.config.RateLimitProperties.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets per client and endpoint. A bucket is a single long holding the
+ * {@link System#nanoTime} at which it will be full again: taking tokens moves
+ * that time later by one refill interval each, and a request is refused when
+ * it would land more than {@code capacity} intervals ahead of now. A decision
+ * is a map lookup and a compare-and-set, without locks. The bucket is its own
+ * map key, so a lookup touches one object past the map node.
+ *
+ * <p>A bucket whose full time has passed is indistinguishable from a new one,
+ * so buckets full for the idle timeout are dropped without losing state.
+ */
+@Component
+public class RateLimiter {
+
+    private final Map<Bucket, Bucket> buckets = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.idleNanos = properties.idleTimeout().toNanos();
+    }
+
+    /**
+     * Takes {@code tokens} from the client's bucket for the endpoint. Returns 0
+     * when they were taken, or else how many nanoseconds until they could be.
+     * A request costing more than the capacity waits for a full bucket.
+     */
+    public long acquire(String client, Endpoint endpoint, long tokens) {
+        long now = System.nanoTime();
+        // A new bucket is full; on a miss the lookup key becomes the bucket.
+        Bucket probe = new Bucket(client, endpoint, now);
+        Bucket bucket = buckets.get(probe);
+        if (bucket == null) {
+            bucket = buckets.putIfAbsent(probe, probe);
+            if (bucket == null) {
+                bucket = probe;
+            }
+        }
+        long cost = Math.min(tokens, endpoint.capacity) * endpoint.intervalNanos;
+        while (true) {
+            long fullAt = bucket.fullAt;
+            long next = Math.max(fullAt, now) + cost;
+            long wait = next - now - endpoint.burstNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (Bucket.FULL_AT.compareAndSet(bucket, fullAt, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${youtext.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long cutoff = System.nanoTime() - idleNanos;
+        for (Bucket bucket : buckets.keySet()) {
+            // A request racing with the removal may land in the dropped bucket; it has been idle, so that is one free request.
+            if (bucket.fullAt - cutoff < 0 && buckets.remove(bucket, bucket)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public int buckets() {
+        return buckets.size();
+    }
+
+    public long allowed() {
+        return allowed.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * The limit of one endpoint. Buckets are keyed by endpoint identity.
+     */
+    public static final class Endpoint {
+        private final long capacity;
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        public Endpoint(Limit limit) {
+            this.capacity = Math.max(1, limit.capacity());
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.perSecond()));
+            this.burstNanos = capacity * intervalNanos;
+        }
+
+        public long capacity() {
+            return capacity;
+        }
+    }
+
+    /**
+     * Equal to any bucket of the same client and endpoint, whatever its state.
+     */
+    private static final class Bucket {
+        private static final VarHandle FULL_AT;
+
+        static {
+            try {
+                FULL_AT = MethodHandles.lookup().findVarHandle(Bucket.class, "fullAt", long.class);
+            } catch (ReflectiveOperationException ex) {
+                throw new ExceptionInInitializerError(ex);
+            }
+        }
+
+        private final String client;
+        private final Endpoint endpoint;
+        private final int hash;
+        private volatile long fullAt;
+
+        private Bucket(String client, Endpoint endpoint, long fullAt) {
+            this.client = client;
+            this.endpoint = endpoint;
+            this.hash = client.hashCode() * 31 + System.identityHashCode(endpoint);
+            this.fullAt = fullAt;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Bucket bucket && endpoint == bucket.endpoint && client.equals(bucket.client);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.snapmath.youtext.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapmath.youtext.config.ResponseCacheProperties;
+import com.snapmath.youtext.event.TranscriptionDeletedEvent;
+import com.snapmath.youtext.event.TranscriptionSavedEvent;
+import com.snapmath.youtext.mapper.TranscriptionJsonWriter;
+import com.snapmath.youtext.mapper.TranscriptionMapper;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized JSON of records, optionally gzip-encoded, and the JSON of
+ * their list items, so repeat reads skip the mapper and the serializer. Records
+ * never change once saved, which also makes their strong ETags stable.
+ *
+ * <p>Entries are filled on first read and dropped when their record is saved
+ * over or deleted. Past the byte budget a CLOCK hand evicts entries that were
+ * not read since its last pass; the payloads are also softly reachable, so the
+ * collector can take them back under memory pressure before the budget is hit.
+ */
+@Component
+public class TranscriptionResponseCache {
+
+    // Map node, entry and payload slots; payload arrays are counted at their length.
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+    private static final byte[] PAGE_START = "{\"items\":[".getBytes();
+    private static final byte[] PAGE_CURSOR = "],\"nextCursor\":".getBytes();
+
+    private final TranscriptionJsonWriter jsonWriter;
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final boolean gzip;
+    private final long gzipMinBytes;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TranscriptionResponseCache(
+            TranscriptionJsonWriter jsonWriter,
+            ObjectMapper objectMapper,
+            ResponseCacheProperties properties
+    ) {
+        this.jsonWriter = jsonWriter;
+        this.objectMapper = objectMapper;
+        this.maxBytes = properties.maxSize().toBytes();
+        this.maxEntryBytes = Math.min(properties.maxEntrySize().toBytes(), maxBytes);
+        this.gzip = properties.gzip();
+        this.gzipMinBytes = properties.gzipMinSize().toBytes();
+    }
+
+    /**
+     * Strong ETag of the record's JSON. Gzip-encoded, NDJSON, CBOR and Smile
+     * bodies are different representations and get their own tags.
+     */
+    public static String etag(TranscriptionRecord record, Representation representation) {
+        return '"' + record.getId() + '-' + Long.toHexString(record.getCreatedAt().toEpochMilli())
+                + representation.suffix + '"';
+    }
+
+    /**
+     * Strong ETag of a list page. Its items are immutable, so the page changes
+     * only when the set of ids on it or the cursor after it does.
+     */
+    public static String pageEtag(List<TranscriptionRecord> page, String nextCursor, Representation representation) {
+        long hash = 0xcbf29ce484222325L;
+        for (TranscriptionRecord record : page) {
+            hash = fnv(hash, record.getId());
+            hash = (hash ^ '|') * 0x100000001b3L;
+        }
+        if (nextCursor != null) {
+            hash = fnv(hash, nextCursor);
+        }
+        return "\"p-" + Long.toHexString(hash) + '-' + page.size() + representation.suffix + '"';
+    }
+
+    /**
+     * Whether an If-None-Match header matches the tag. The comparison is weak,
+     * as RFC 9110 requires for If-None-Match.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        int start = 0;
+        int length = ifNoneMatch.length();
+        while (start < length) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            String candidate = ifNoneMatch.substring(start, end).strip();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the record's JSON is small enough to be cached; larger records are
+     * streamed on every read.
+     */
+    public boolean cacheable(TranscriptionRecord record) {
+        return record.getBodyRef().estimatedBytes() <= maxEntryBytes;
+    }
+
+    public boolean gzipEnabled() {
+        return gzip;
+    }
+
+    /**
+     * Whether the record is served gzip-encoded to a client that accepts it.
+     * Decided from the estimated size, so a conditional request can be answered
+     * without serializing the record.
+     */
+    public boolean gzips(TranscriptionRecord record) {
+        return gzip && cacheable(record) && record.getBodyRef().estimatedBytes() >= gzipMinBytes;
+    }
+
+    public byte[] json(TranscriptionRecord record) {
+        return entry(record).json.get(record, this::serialize);
+    }
+
+    public byte[] gzippedJson(TranscriptionRecord record) {
+        Entry entry = entry(record);
+        return entry.gzippedJson.get(record, ignored -> gzip(entry.json.get(record, this::serialize)));
+    }
+
+    /**
+     * A list page in the shape of {@code TranscriptionPageDto}, assembled from
+     * the cached JSON of each item.
+     */
+    public byte[] page(List<TranscriptionRecord> page, String nextCursor) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + 256 * page.size());
+        out.writeBytes(PAGE_START);
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            TranscriptionRecord record = page.get(i);
+            out.writeBytes(entry(record).summary.get(record, this::serializeSummary));
+        }
+        out.writeBytes(PAGE_CURSOR);
+        out.writeBytes(writeValue(nextCursor));
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    @EventListener
+    public void onSaved(TranscriptionSavedEvent event) {
+        evict(event.record().getId());
+    }
+
+    @EventListener
+    public void onDeleted(TranscriptionDeletedEvent event) {
+        evict(event.recordId());
+    }
+
+    public int entries() {
+        return entries.size();
+    }
+
+    public long cachedBytes() {
+        return cachedBytes.get();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Entry entry(TranscriptionRecord record) {
+        Entry entry = entries.get(record.getId());
+        if (entry != null && entry.createdAt.equals(record.getCreatedAt())) {
+            entry.referenced = true;
+            return entry;
+        }
+        Entry created = new Entry(this, record);
+        Entry existing = entries.putIfAbsent(record.getId(), created);
+        if (existing != null && existing.createdAt.equals(record.getCreatedAt())) {
+            return existing;
+        }
+        if (existing != null) {
+            // Left behind by an earlier record under the same id.
+            discard(existing);
+            entries.put(record.getId(), created);
+        }
+        clock.add(created);
+        charge(created, ENTRY_OVERHEAD_BYTES);
+        return created;
+    }
+
+    private void evict(String recordId) {
+        Entry entry = entries.remove(recordId);
+        if (entry != null) {
+            entry.live = false;
+            cachedBytes.addAndGet(-entry.bytes.getAndSet(0));
+        }
+    }
+
+    private void discard(Entry entry) {
+        entries.remove(entry.id, entry);
+        entry.live = false;
+        cachedBytes.addAndGet(-entry.bytes.getAndSet(0));
+        evictions.increment();
+    }
+
+    private void charge(Entry entry, long delta) {
+        entry.bytes.addAndGet(delta);
+        cachedBytes.addAndGet(delta);
+        if (!entry.live) {
+            // Lost a race with eviction; take back whatever is still charged.
+            cachedBytes.addAndGet(-entry.bytes.getAndSet(0));
+            return;
+        }
+        evictOverBudget();
+    }
+
+    private void evictOverBudget() {
+        if (cachedBytes.get() <= maxBytes || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Every entry gets at most one second chance per pass, so two passes always suffice.
+            int steps = 2 * entries.size() + 1;
+            while (cachedBytes.get() > maxBytes && steps-- > 0) {
+                Entry hand = clock.poll();
+                if (hand == null) {
+                    break;
+                }
+                if (!hand.live) {
+                    continue;
+                }
+                if (hand.referenced) {
+                    hand.referenced = false;
+                    clock.add(hand);
+                } else {
+                    discard(hand);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private byte[] serialize(TranscriptionRecord record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                (int) Math.min(Integer.MAX_VALUE - 8, 512 + record.getBodyRef().estimatedBytes()));
+        try {
+            jsonWriter.writeJson(record, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] serializeSummary(TranscriptionRecord record) {
+        return writeValue(TranscriptionMapper.toSummaryDto(record));
+    }
+
+    private byte[] writeValue(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static long fnv(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public enum Representation {
+        JSON(""),
+        JSON_GZIP("-gz"),
+        NDJSON("-nd"),
+        CBOR("-cb"),
+        SMILE("-sm"),
+        SRT("-srt"),
+        VTT("-vtt"),
+        TEXT("-txt");
+
+        private final String suffix;
+
+        Representation(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    private static final class Entry {
+        private final String id;
+        private final Instant createdAt;
+        private final AtomicLong bytes = new AtomicLong();
+        private final Slot json;
+        private final Slot gzippedJson;
+        private final Slot summary;
+        private volatile boolean live = true;
+        private volatile boolean referenced;
+
+        private Entry(TranscriptionResponseCache owner, TranscriptionRecord record) {
+            this.id = record.getId();
+            this.createdAt = record.getCreatedAt();
+            this.json = new Slot(owner, this);
+            this.gzippedJson = new Slot(owner, this);
+            this.summary = new Slot(owner, this);
+        }
+    }
+
+    /**
+     * One softly held payload. Concurrent misses may both serialize; the first
+     * to publish wins and only its bytes are charged.
+     */
+    private static final class Slot {
+        private final TranscriptionResponseCache owner;
+        private final Entry entry;
+        private final AtomicReference<Payload> payload = new AtomicReference<>();
+
+        private Slot(TranscriptionResponseCache owner, Entry entry) {
+            this.owner = owner;
+            this.entry = entry;
+        }
+
+        byte[] get(TranscriptionRecord record, Function<TranscriptionRecord, byte[]> fill) {
+            Payload current = payload.get();
+            byte[] bytes = current != null ? current.bytes.get() : null;
+            if (bytes != null) {
+                owner.hits.increment();
+                return bytes;
+            }
+            owner.misses.increment();
+            bytes = fill.apply(record);
+            if (payload.compareAndSet(current, new Payload(new SoftReference<>(bytes), bytes.length))) {
+                // A payload the collector cleared is still charged until replaced.
+                owner.charge(entry, bytes.length - (current != null ? current.length : 0));
+            }
+            return bytes;
+        }
+    }
+
+    private record Payload(SoftReference<byte[]> bytes, int length) {
+    }
+}
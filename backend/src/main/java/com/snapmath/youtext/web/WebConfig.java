@@ -0,0 +1,56 @@
+package com.snapmath.youtext.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapmath.youtext.config.RateLimitProperties;
+import com.snapmath.youtext.mapper.TranscriptionJsonWriter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AuthenticatedUserInterceptor authenticatedUserInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final boolean rateLimited;
+
+    public WebConfig(
+            AuthenticatedUserInterceptor authenticatedUserInterceptor,
+            RateLimitInterceptor rateLimitInterceptor,
+            RateLimitProperties rateLimitProperties
+    ) {
+        this.authenticatedUserInterceptor = authenticatedUserInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.rateLimited = rateLimitProperties.enabled();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(authenticatedUserInterceptor)
+                .addPathPatterns("/api/transcriptions", "/api/transcriptions/**");
+        // Registered second, so buckets are keyed by the authenticated user.
+        if (rateLimited) {
+            registry.addInterceptor(rateLimitInterceptor)
+                    .addPathPatterns("/api/**");
+        }
+    }
+
+    /**
+     * This and the Smile converter below replace the defaults, whose mappers
+     * ignore the {@code spring.jackson} settings, with ones configured like the
+     * JSON mapper. They keep their place after JSON, so JSON is still what
+     * clients get unless they ask for a binary format.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(TranscriptionJsonWriter.cborMapper(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(TranscriptionJsonWriter.smileMapper(objectMapper));
+    }
+}
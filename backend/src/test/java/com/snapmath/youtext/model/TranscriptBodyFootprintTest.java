@@ -0,0 +1,75 @@
+package com.snapmath.youtext.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transcripts shaped like the app sends them, {@code "[mm:ss] text"} lines
+ * joined by newlines, are rebuilt from the lines, so a record holds one copy
+ * of the text less than one whose transcript has to be stored.
+ */
+class TranscriptBodyFootprintTest {
+
+    private static final int LINES_PER_RECORD = 200;
+
+    @Test
+    void clientShapedTranscriptIsDerived() {
+        List<TranscriptLine> lines = lines(0);
+        String transcript = clientTranscript(lines);
+
+        TranscriptBody body = build(lines, transcript).getBody();
+
+        assertTrue(body.isTranscriptDerived());
+        assertTrue(body.isTimestamped());
+        assertEquals(transcript, body.transcript());
+    }
+
+    @Test
+    void clientShapedTranscriptIsNotRetainedTwice() {
+        List<TranscriptLine> lines = lines(1);
+        // The trailing newline keeps the transcript from matching the lines, so it is stored.
+        String storedTranscript = clientTranscript(lines) + "\n";
+
+        TranscriptBody derived = build(lines, clientTranscript(lines)).getBody();
+        TranscriptBody stored = build(lines, storedTranscript).getBody();
+
+        assertTrue(derived.isTranscriptDerived());
+        assertFalse(stored.isTranscriptDerived());
+        assertEquals(2L * storedTranscript.length(), stored.estimatedBytes() - derived.estimatedBytes());
+    }
+
+    private static TranscriptionRecord build(List<TranscriptLine> lines, String transcript) {
+        return TranscriptionRecord.builder().lines(lines).transcript(transcript).build();
+    }
+
+    private static List<TranscriptLine> lines(int seed) {
+        List<TranscriptLine> lines = new ArrayList<>(LINES_PER_RECORD);
+        int seconds = 0;
+        for (int i = 0; i < LINES_PER_RECORD; i++) {
+            String timestamp = String.format("%02d:%02d", seconds / 60 % 60, seconds % 60);
+            lines.add(new TranscriptLine(timestamp, "record " + seed + " says line " + i + " of the lesson aloud"));
+            seconds += 8 + (i + seed) % 6;
+        }
+        return lines;
+    }
+
+    /**
+     * The transcript as the app builds it, one {@code "[mm:ss] text"} line per entry.
+     */
+    private static String clientTranscript(List<TranscriptLine> lines) {
+        StringBuilder transcript = new StringBuilder();
+        for (TranscriptLine line : lines) {
+            if (!transcript.isEmpty()) {
+                transcript.append('\n');
+            }
+            transcript.append('[').append(line.timestamp()).append("] ").append(line.text());
+        }
+        return transcript.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.YouTextBackendApplication;
+import com.snapmath.youtext.controller.TranscriptionController;
+import com.snapmath.youtext.dto.CreateTranscriptionRequest;
+import com.snapmath.youtext.dto.TranscriptLineDto;
+import com.snapmath.youtext.dto.TranscriptSearchHitDto;
+import com.snapmath.youtext.dto.TranscriptionRecordDto;
+import com.snapmath.youtext.model.Session;
+import com.snapmath.youtext.model.UserProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Records saved in durable mode must be searchable, and counted in the
+ * transcript metrics, again once the app has been restarted on the same
+ * storage directory.
+ */
+class DurableTranscriptionServiceRestartTest {
+
+    private static final String USER_ID = "restart-user";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveredRecordsAreSearchable() {
+        String id;
+        try (ConfigurableApplicationContext context = start()) {
+            TranscriptionRecordDto saved = client(context).post()
+                    .uri("/api/transcriptions")
+                    .body(new CreateTranscriptionRequest("Triangles", "https://youtu.be/triangles", "Right angles",
+                            List.of("Hypotenuse"), "[00:00] the pythagorean theorem",
+                            List.of(new TranscriptLineDto("00:00", "the pythagorean theorem"))))
+                    .retrieve()
+                    .body(TranscriptionRecordDto.class);
+            id = saved.id();
+            assertEquals(List.of(id), search(context, "pythagorean"));
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(List.of(id), search(context, "pythagorean"));
+            assertEquals(1, context.getBean(MeterRegistry.class).get("youtext.transcript.lines").summary().count());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(YouTextBackendApplication.class, FixedUser.class).run(
+                "--server.port=0",
+                "--youtext.storage.mode=durable",
+                "--youtext.storage.directory=" + directory.resolve("store"),
+                "--youtext.storage.tiering.directory=" + directory.resolve("spill"));
+    }
+
+    private static List<String> search(ConfigurableApplicationContext context, String query) {
+        List<TranscriptSearchHitDto> hits = client(context).get()
+                .uri("/api/transcriptions/search?q={query}", query)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() { });
+        return hits.stream().map(TranscriptSearchHitDto::id).toList();
+    }
+
+    private static RestClient client(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(TranscriptionController.USER_HEADER, USER_ID)
+                .build();
+    }
+
+    /**
+     * Sign-ins are not persisted, so both runs authenticate the same fixed user.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class FixedUser {
+
+        @Bean
+        @Primary
+        AuthService fixedUserAuthService() {
+            UserProfile profile = UserProfile.builder().id(USER_ID).email("restart@example.com").build();
+            Session session = new Session(USER_ID, "token", Instant.now().plus(1, ChronoUnit.DAYS));
+            return new AuthService() {
+                @Override
+                public UserProfile signInWithGoogle(String credential, String email, String displayName) {
+                    return profile;
+                }
+
+                @Override
+                public Optional<UserProfile> findById(String userId) {
+                    return USER_ID.equals(userId) ? Optional.of(profile) : Optional.empty();
+                }
+
+                @Override
+                public Optional<Session> getActiveSession(String userId) {
+                    return USER_ID.equals(userId) ? Optional.of(session) : Optional.empty();
+                }
+
+                @Override
+                public void signOut(String userId) {
+                }
+            };
+        }
+    }
+}
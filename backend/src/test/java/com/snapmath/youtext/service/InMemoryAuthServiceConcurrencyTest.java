@@ -0,0 +1,68 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.SessionProperties;
+import com.snapmath.youtext.model.UserProfile;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent first sign-ins with the same email, spelled with different case
+ * and surrounding whitespace, must all resolve to a single user.
+ */
+class InMemoryAuthServiceConcurrencyTest {
+
+    private static final String[] SPELLINGS = {
+            "ada@example.com", "Ada@Example.com", " ada@example.com", "ADA@EXAMPLE.COM\t", "ada@example.com  "
+    };
+    private static final int SIGN_INS = 16;
+    private static final int ROUNDS = 200;
+
+    @Test
+    void racingSignInsForOneEmailCreateOneUser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SIGN_INS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                InMemoryAuthService auth = new InMemoryAuthService(
+                        new SessionProperties(Duration.ofHours(1), 1000, Duration.ofSeconds(30), 100), event -> { });
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<UserProfile>> signIns = new ArrayList<>(SIGN_INS);
+                for (int i = 0; i < SIGN_INS; i++) {
+                    String email = SPELLINGS[i % SPELLINGS.length];
+                    String credential = "credential-" + i;
+                    signIns.add(executor.submit(() -> {
+                        start.await();
+                        return auth.signInWithGoogle(credential, email, "Ada");
+                    }));
+                }
+                start.countDown();
+
+                List<UserProfile> profiles = new ArrayList<>(SIGN_INS);
+                for (Future<UserProfile> signIn : signIns) {
+                    profiles.add(signIn.get());
+                }
+                Set<String> userIds = profiles.stream().map(UserProfile::getId).collect(Collectors.toSet());
+                assertEquals(1, userIds.size(), "round " + round + " created " + userIds);
+
+                String userId = userIds.iterator().next();
+                assertTrue(auth.findById(userId).isPresent());
+                assertTrue(auth.getActiveSession(userId).isPresent());
+                assertEquals(1, auth.sessions().liveSessions());
+                assertEquals(userId, auth.signInWithGoogle("later", "  ADA@example.COM ", "Ada").getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.StorageProperties;
+import com.snapmath.youtext.config.SyncProperties;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A client polling an account with no records settles on a version. Deleting
+ * the last record, and saving again after that, arrive as deltas rather than
+ * resyncs.
+ */
+class InMemoryTranscriptionServiceChangesTest {
+
+    private static final String USER_ID = "user";
+
+    @Test
+    void emptyAccountReachesSteadyState() throws IOException {
+        InMemoryTranscriptionService service = new InMemoryTranscriptionService(event -> { }, heapTier(),
+                new SyncProperties(1000));
+
+        TranscriptionChanges first = service.changesSince(USER_ID, 0);
+        assertTrue(first.resyncRequired());
+        TranscriptionChanges idle = service.changesSince(USER_ID, first.version());
+        assertUpToDate(idle);
+
+        service.save("someone-else", TranscriptionRecord.builder().id("other").build());
+        service.save(USER_ID, TranscriptionRecord.builder().id("a").build());
+        TranscriptionChanges saved = service.changesSince(USER_ID, idle.version());
+        assertFalse(saved.resyncRequired());
+        assertEquals(List.of("a"), saved.upserts().stream().map(TranscriptionRecord::getId).toList());
+
+        service.delete(USER_ID, "a");
+        TranscriptionChanges deleted = service.changesSince(USER_ID, saved.version());
+        assertFalse(deleted.resyncRequired());
+        assertEquals(List.of("a"), deleted.deletedIds());
+        assertUpToDate(service.changesSince(USER_ID, deleted.version()));
+
+        service.save(USER_ID, TranscriptionRecord.builder().id("b").build());
+        TranscriptionChanges resaved = service.changesSince(USER_ID, deleted.version());
+        assertFalse(resaved.resyncRequired());
+        assertEquals(List.of("b"), resaved.upserts().stream().map(TranscriptionRecord::getId).toList());
+    }
+
+    private static void assertUpToDate(TranscriptionChanges changes) {
+        assertFalse(changes.resyncRequired());
+        assertTrue(changes.upserts().isEmpty());
+        assertTrue(changes.deletedIds().isEmpty());
+    }
+
+    private static TranscriptBodyTier heapTier() throws IOException {
+        return new TranscriptBodyTier(new StorageProperties(
+                StorageProperties.Mode.MEMORY,
+                Path.of("data"),
+                512,
+                Duration.ofMinutes(10),
+                new StorageProperties.Tiering(DataSize.ofBytes(0), Path.of("data/spill"), DataSize.ofMegabytes(64)),
+                new StorageProperties.Compression(false, 6, DataSize.ofKilobytes(32), DataSize.ofMegabytes(1), 64),
+                true
+        ));
+    }
+}
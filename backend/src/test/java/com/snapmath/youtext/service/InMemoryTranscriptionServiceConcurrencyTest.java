@@ -0,0 +1,148 @@
+package com.snapmath.youtext.service;
+
+import com.snapmath.youtext.config.StorageProperties;
+import com.snapmath.youtext.config.SyncProperties;
+import com.snapmath.youtext.model.TranscriptionCursor;
+import com.snapmath.youtext.model.TranscriptionRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several writers per user saving, re-dating and deleting records while
+ * readers page through them. Each writer owns its own ids, so the final state
+ * is known; the id map and the createdAt index must agree on it.
+ */
+class InMemoryTranscriptionServiceConcurrencyTest {
+
+    private static final int USERS = 4;
+    private static final int WRITERS_PER_USER = 4;
+    private static final int OPERATIONS = 5_000;
+    private static final int IDS_PER_WRITER = 200;
+
+    @Test
+    void idMapAndCreatedAtIndexStayConsistent() throws Exception {
+        InMemoryTranscriptionService service = new InMemoryTranscriptionService(event -> { }, heapTier(),
+                new SyncProperties(1000));
+        int threads = USERS * WRITERS_PER_USER;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        List<Future<Map<String, Instant>>> writers = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                String userId = "user-" + (t % USERS);
+                String prefix = "writer-" + t + "-";
+                long seed = t;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    return write(service, userId, prefix, new SplittableRandom(seed));
+                }));
+            }
+
+            Map<String, Map<String, Instant>> expected = new HashMap<>();
+            for (int t = 0; t < threads; t++) {
+                expected.computeIfAbsent("user-" + (t % USERS), user -> new HashMap<>()).putAll(writers.get(t).get());
+            }
+
+            long records = 0;
+            for (int u = 0; u < USERS; u++) {
+                String userId = "user-" + u;
+                Map<String, Instant> survivors = expected.get(userId);
+                List<TranscriptionRecord> all = new ArrayList<>(service.findAll(userId));
+                assertOrdered(all);
+                assertEquals(all.size(), all.stream().map(TranscriptionRecord::getId).distinct().count());
+                assertEquals(survivors.size(), all.size());
+                for (TranscriptionRecord record : all) {
+                    assertEquals(survivors.get(record.getId()), record.getCreatedAt());
+                    assertSame(record, service.findOne(userId, record.getId()).orElseThrow());
+                }
+                assertEquals(all, service.findPage(userId, null, Integer.MAX_VALUE));
+                records += all.size();
+            }
+            assertEquals(records, service.stats().records());
+
+            for (int u = 0; u < USERS; u++) {
+                String userId = "user-" + u;
+                expected.get(userId).keySet().forEach(id -> service.delete(userId, id));
+                assertTrue(service.findAll(userId).isEmpty());
+            }
+            assertEquals(new TranscriptionStoreStats(0, 0, 0, 0), service.stats());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the creation time of every id this writer left saved.
+     */
+    private static Map<String, Instant> write(InMemoryTranscriptionService service, String userId, String prefix,
+                                              SplittableRandom random) {
+        Map<String, Instant> saved = new HashMap<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            String id = prefix + random.nextInt(IDS_PER_WRITER);
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                // Re-saving an id with a new creation time moves it in the createdAt index.
+                Instant createdAt = Instant.ofEpochMilli(random.nextInt(1_000));
+                service.save(userId, TranscriptionRecord.builder().id(id).createdAt(createdAt).build());
+                saved.put(id, createdAt);
+                assertEquals(createdAt, service.findOne(userId, id).orElseThrow().getCreatedAt());
+            } else if (operation < 8) {
+                service.delete(userId, id);
+                saved.remove(id);
+                assertNull(service.findOne(userId, id).orElse(null));
+            } else if (operation < 9) {
+                assertOrdered(new ArrayList<>(service.findAll(userId)));
+            } else {
+                List<TranscriptionRecord> page = service.findPage(userId, null, 20);
+                assertOrdered(page);
+                if (!page.isEmpty()) {
+                    assertOrdered(service.findPage(userId,
+                            TranscriptionCursor.of(page.get(page.size() - 1)), 20));
+                }
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Reads racing a re-save may see the record under both its old and new
+     * creation time, so only the order is checked while writers run.
+     */
+    private static void assertOrdered(List<TranscriptionRecord> records) {
+        for (int i = 1; i < records.size(); i++) {
+            TranscriptionCursor previous = TranscriptionCursor.of(records.get(i - 1));
+            assertTrue(UserRecordStore.NEWEST_FIRST.compare(previous, TranscriptionCursor.of(records.get(i))) < 0);
+        }
+    }
+
+    private static TranscriptBodyTier heapTier() throws IOException {
+        return new TranscriptBodyTier(new StorageProperties(
+                StorageProperties.Mode.MEMORY,
+                Path.of("data"),
+                512,
+                Duration.ofMinutes(10),
+                new StorageProperties.Tiering(DataSize.ofBytes(0), Path.of("data/spill"), DataSize.ofMegabytes(64)),
+                new StorageProperties.Compression(false, 6, DataSize.ofKilobytes(32), DataSize.ofMegabytes(1), 64),
+                true
+        ));
+    }
+}